@@ -0,0 +1,100 @@
+package fr.ssp.bench;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Générateur d'instances SSP reproductibles pour les benchmarks.
+ *
+ * Les valeurs sont toujours distinctes (SubsetV1 et SubsetV2 refusent les
+ * doublons) et la cible est la somme d'un sous-ensemble tiré au hasard, de
+ * sorte que toute instance générée admet au moins une solution.
+ */
+public final class Instances {
+
+  /**
+   * Distribution des valeurs de l'instance
+   */
+  public enum Distribution {
+    /** 1..n, comme le constructeur SSP(int n) */
+    CONSECUTIVE {
+      @Override
+      long bound(int n) {
+        return n;
+      }
+    },
+    /** valeurs distinctes uniformes dans [1, 10n] */
+    UNIFORM {
+      @Override
+      long bound(int n) {
+        return 10L * n;
+      }
+    },
+    /** valeurs distinctes uniformes dans [1, 2^20] */
+    WIDE {
+      @Override
+      long bound(int n) {
+        return 1L << 20;
+      }
+    };
+
+    abstract long bound(int n);
+  }
+
+  private final long[] values;
+  private final long target;
+
+  private Instances(long[] values, long target) {
+    this.values = values;
+    this.target = target;
+  }
+
+  /**
+   * Génère une instance
+   *
+   * @param n            nombre d'éléments
+   * @param seed         graine du générateur
+   * @param distribution distribution des valeurs
+   * @param density      probabilité qu'un élément fasse partie du sous-ensemble
+   *                     définissant la cible
+   * @return l'instance générée
+   */
+  public static Instances generate(int n, long seed, Distribution distribution, double density) {
+    if (n <= 0)
+      throw new IllegalArgumentException("Instance size must be positive");
+    if (density < 0.0 || density > 1.0)
+      throw new IllegalArgumentException("Target density must be in [0, 1]");
+
+    Random R = new Random(seed);
+    long bound = distribution.bound(n);
+    long[] values = new long[n];
+    if (distribution == Distribution.CONSECUTIVE) {
+      for (int i = 0; i < n; i++)
+        values[i] = i + 1;
+    } else {
+      Set<Long> seen = new HashSet<>(2 * n);
+      for (int i = 0; i < n; i++) {
+        long v;
+        do {
+          v = 1 + (long) (R.nextDouble() * bound);
+        } while (!seen.add(v));
+        values[i] = v;
+      }
+    }
+
+    long target = 0;
+    for (long v : values)
+      if (R.nextDouble() < density)
+        target += v;
+    return new Instances(values, target);
+  }
+
+  public long[] values() {
+    return this.values.clone();
+  }
+
+  public long target() {
+    return this.target;
+  }
+}
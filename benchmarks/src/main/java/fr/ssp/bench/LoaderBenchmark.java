@@ -0,0 +1,95 @@
+package fr.ssp.bench;
+
+import fr.ssp.io.BinaryInstanceReader;
+import fr.ssp.io.BinaryInstanceWriter;
+import fr.ssp.io.Instance;
+import fr.ssp.io.TextInstanceReader;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Chargement d'un fichier d'instance texte : TextInstanceReader (FileChannel
+ * projeté en mémoire, décodage à la main) contre l'ancien constructeur
+ * SSP(String) à base de java.util.Scanner, reproduit ici à l'identique, et
+ * la même instance au format binaire lue par BinaryInstanceReader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoaderBenchmark {
+
+  @Param({ "100000", "1000000" })
+  public int n;
+
+  private Path file;
+  private Path binary;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    this.file = Files.createTempFile("ssp-instance", ".txt");
+    Random R = new Random(18);
+    try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(this.file))) {
+      out.println(this.n);
+      out.println(R.nextInt(Integer.MAX_VALUE));
+      for (int i = 0; i < this.n; i++)
+        out.println(1 + R.nextInt(Integer.MAX_VALUE));
+    }
+    this.binary = Files.createTempFile("ssp-instance", ".bin");
+    BinaryInstanceWriter.write(this.binary, TextInstanceReader.read(this.file));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.file);
+    Files.deleteIfExists(this.binary);
+  }
+
+  @Benchmark
+  public long[] channel() throws IOException {
+    Instance instance = TextInstanceReader.read(this.file);
+    return instance.getValues();
+  }
+
+  @Benchmark
+  public long[] binary() throws IOException {
+    Instance instance = BinaryInstanceReader.read(this.binary);
+    return instance.getValues();
+  }
+
+  @Benchmark
+  public long[] scanner() throws FileNotFoundException {
+    try (Scanner scan = new Scanner(new File(this.file.toString()))) {
+      int size = scan.nextInt();
+      long[] values = new long[size];
+      scan.nextLong(); // target
+      for (int i = 0; i < size; i++)
+        values[i] = scan.nextLong();
+      return values;
+    }
+  }
+}
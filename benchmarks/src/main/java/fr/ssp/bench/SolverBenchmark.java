@@ -0,0 +1,173 @@
+package fr.ssp.bench;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+import fr.ssp.solver.BitsetSolver;
+import fr.ssp.solver.BranchAndPruneSolver;
+import fr.ssp.solver.DynamicProgrammingSolver;
+import fr.ssp.solver.IterativeBranchAndPruneSolver;
+import fr.ssp.solver.MeetInTheMiddleSolver;
+import fr.ssp.solver.ParallelBranchAndPruneSolver;
+import fr.ssp.solver.SSPSolver;
+import fr.ssp.solver.SchroeppelShamirSolver;
+import fr.ssp.solver.SolveMode;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Débit et temps moyen de bout en bout (construction du solveur + résolution)
+ * pour chaque couple solveur x SubsetFactory.
+ *
+ * Sans option, JMH parcourt le produit complet des paramètres, soit plusieurs
+ * heures ; le README donne les options -p d'un jeu de fumée de quelques
+ * minutes. La cellule BITSET en mode ALL est vide : BitsetSolver ne rend qu'un
+ * témoin, elle doublerait FIRST, et solve() y rend null sans rien résoudre.
+ *
+ * Les allocations par opération s'obtiennent avec le profiler GC de JMH :
+ * {@code java -jar target/benchmarks.jar -prof gc}, ou en lançant
+ * {@link #main(String[])} qui l'active par défaut.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+  /**
+   * Solveurs mesurés
+   */
+  public enum Solver {
+    BP {
+      @Override
+      SSPSolver create(long target, long[] values, SubsetFactory factory) {
+        return new BranchAndPruneSolver(target, values, factory);
+      }
+    },
+    BP_SORTED {
+      @Override
+      SSPSolver create(long target, long[] values, SubsetFactory factory) {
+        BranchAndPruneSolver solver = new BranchAndPruneSolver(target, values, factory);
+        solver.setSortedPruning(true);
+        return solver;
+      }
+    },
+    BP_ITERATIVE {
+      @Override
+      SSPSolver create(long target, long[] values, SubsetFactory factory) {
+        return new IterativeBranchAndPruneSolver(target, values, factory);
+      }
+    },
+    BP_PARALLEL {
+      @Override
+      SSPSolver create(long target, long[] values, SubsetFactory factory) {
+        return new ParallelBranchAndPruneSolver(target, values, factory);
+      }
+    },
+    DYNPROG {
+      @Override
+      SSPSolver create(long target, long[] values, SubsetFactory factory) {
+        return new DynamicProgrammingSolver(target, values, factory);
+      }
+    },
+    DYNPROG_TWO_PHASE {
+      @Override
+      SSPSolver create(long target, long[] values, SubsetFactory factory) {
+        DynamicProgrammingSolver solver = new DynamicProgrammingSolver(target, values, factory);
+        solver.setTwoPhase(true);
+        return solver;
+      }
+    },
+    MITM {
+      @Override
+      SSPSolver create(long target, long[] values, SubsetFactory factory) {
+        return new MeetInTheMiddleSolver(target, values, factory);
+      }
+    },
+    SCHROEPPEL_SHAMIR {
+      @Override
+      SSPSolver create(long target, long[] values, SubsetFactory factory) {
+        return new SchroeppelShamirSolver(target, values, factory);
+      }
+    },
+    BITSET {
+      @Override
+      SSPSolver create(long target, long[] values, SubsetFactory factory) {
+        return new BitsetSolver(target, values, factory);
+      }
+    };
+
+    abstract SSPSolver create(long target, long[] values, SubsetFactory factory);
+  }
+
+  // sans liste explicite, JMH parcourt toutes les constantes des enums
+  @Param
+  public Solver solver;
+
+  @Param
+  public SubsetFactory factory;
+
+  @Param
+  public SolveMode mode;
+
+  @Param({ "10", "14", "18" })
+  public int n;
+
+  @Param({ "1", "2" })
+  public long seed;
+
+  @Param
+  public Instances.Distribution distribution;
+
+  @Param({ "0.25", "0.5" })
+  public double density;
+
+  private long[] values;
+  private long target;
+  private boolean skipped;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    // BitsetSolver ne rend qu'un témoin : la cellule ALL doublerait FIRST
+    this.skipped = this.solver == Solver.BITSET && this.mode == SolveMode.ALL;
+    Instances instance = Instances.generate(this.n, this.seed, this.distribution, this.density);
+    this.values = instance.values();
+    this.target = instance.target();
+  }
+
+  @Benchmark
+  public Subset solve() {
+    if (this.skipped)
+      return null;
+    SSPSolver s = this.solver.create(this.target, this.values, this.factory);
+    s.setMode(this.mode);
+    return s.solve();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(SolverBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+}
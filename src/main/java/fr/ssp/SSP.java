@@ -9,14 +9,27 @@ package fr.ssp;
 
 import fr.ssp.api.Subset;
 import fr.ssp.impl.SubsetFactory;
+import fr.ssp.io.BinaryInstanceReader;
+import fr.ssp.io.Instance;
+import fr.ssp.io.TextInstanceReader;
+import fr.ssp.solver.BitsetSolver;
 import fr.ssp.solver.BranchAndPruneSolver;
 import fr.ssp.solver.DynamicProgrammingSolver;
+import fr.ssp.solver.InstanceReducer;
+import fr.ssp.solver.IterativeBranchAndPruneSolver;
+import fr.ssp.solver.MeetInTheMiddleSolver;
+import fr.ssp.solver.MultisetBranchAndPruneSolver;
+import fr.ssp.solver.SchroeppelShamirSolver;
+import fr.ssp.solver.SolutionCounter;
+import fr.ssp.solver.SolveMode;
+import fr.ssp.solver.ParallelBranchAndPruneSolver;
+import fr.ssp.solver.SearchListener;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.math.BigInteger;
 import java.util.Random;
-import java.util.Scanner;
-import java.util.Arrays;
 
 /**
  * SSP
@@ -65,7 +78,9 @@ public class SSP {
   }
 
   /**
-   * constructor (from text file)
+   * constructor (from file): binary format (read by BinaryInstanceReader) if
+   * the file starts with its header, text format otherwise (size, target, then
+   * the values, parsed by TextInstanceReader)
    */
   public SSP(String filename) throws IllegalArgumentException, FileNotFoundException {
     if (filename == null)
@@ -73,29 +88,30 @@ public class SSP {
     File input = new File(filename);
     if (!input.exists())
       throw new IllegalArgumentException("Given path/file does not exist");
-    try (Scanner scan = new Scanner(input)) {
-      IllegalArgumentException IAE = new IllegalArgumentException("Error while parsing input file");
-
-      // number of elements in the original set
-      if (!scan.hasNext())
-        throw IAE;
-      int size = scan.nextInt();
-      if (size <= 0)
-        throw IAE;
-      this.original = new long[size];
-
-      // target
-      if (!scan.hasNext())
-        throw IAE;
-      this.target = scan.nextLong();
-
-      // the original set
-      for (int i = 0; i < size; i++) {
-        if (!scan.hasNext())
-          throw IAE;
-        this.original[i] = scan.nextLong();
-      }
+    Instance instance;
+    try {
+      if (BinaryInstanceReader.isBinary(input.toPath()))
+        instance = BinaryInstanceReader.read(input.toPath());
+      else
+        instance = TextInstanceReader.read(input.toPath());
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Error while reading input file", e);
     }
+    this.target = instance.getTarget();
+    this.original = instance.getValues();
+  }
+
+  /**
+   * Constructeur à partir d'une instance lue par un lecteur de fr.ssp.io : le
+   * tableau des valeurs est repris tel quel, sans copie
+   *
+   * @param instance l'instance
+   */
+  public SSP(Instance instance) {
+    if (instance == null)
+      throw new IllegalArgumentException("Instance cannot be null");
+    this.target = instance.getTarget();
+    this.original = instance.getValues();
   }
 
   /**
@@ -145,32 +161,135 @@ public class SSP {
    * showing the integers in the original set
    */
   public String showIntegers() {
-    String s = "Original set = [";
+    StringBuilder s = new StringBuilder("Original set = [");
     for (int i = 0; i < this.original.length; i++) {
-      s = s + this.original[i];
-      if (i + 1 < this.original.length)
-        s = s + ",";
+      if (i > 0)
+        s.append(',');
+      s.append(this.original[i]);
     }
-    return s + "]";
+    return s.append(']').toString();
   }
 
   /**
    * dynamic programming approach
    */
   public Subset dynprog(SubsetFactory factory) {
-    return new DynamicProgrammingSolver(target, original, factory).solve();
+    return dynprog(factory, SolveMode.ALL);
+  }
+
+  /**
+   * dynamic programming approach, all solutions or only the first one (null if
+   * the target is unreachable)
+   */
+  public Subset dynprog(SubsetFactory factory, SolveMode mode) {
+    DynamicProgrammingSolver solver = new DynamicProgrammingSolver(target, original, factory);
+    solver.setMode(mode);
+    return solver.solve();
+  }
+
+  /**
+   * two-phase dynamic programming: forward reachability over primitive sums,
+   * then subsets built only for the sums that reach the target (null if the
+   * target is unreachable)
+   */
+  public Subset dynprogTwoPhase(SubsetFactory factory) {
+    DynamicProgrammingSolver solver = new DynamicProgrammingSolver(target, original, factory);
+    solver.setTwoPhase(true);
+    return solver.solve();
+  }
+
+  /**
+   * bitset reachability (one witness only, null if the target is unreachable)
+   */
+  public Subset bitset(SubsetFactory factory) {
+    return new BitsetSolver(target, original, factory).solve();
   }
 
   /**
    * branch-and-prune
    */
   public Subset bp(SubsetFactory factory) {
-    System.err.println("SSP.bp - target: " + target);
-    System.err.println("SSP.bp - valeurs: " + Arrays.toString(original));
+    return bp(factory, (SearchListener) null);
+  }
+
+  /**
+   * branch-and-prune, all solutions or only the first one
+   */
+  public Subset bp(SubsetFactory factory, SolveMode mode) {
+    BranchAndPruneSolver solver = new BranchAndPruneSolver(target, original, factory);
+    solver.setMode(mode);
+    return solver.solve();
+  }
 
-    Subset result = new BranchAndPruneSolver(target, original, factory).solve();
-    System.err.println("SSP.bp - résultat: " + result.getSum());
-    return result;
+  /**
+   * branch-and-prune with a search listener (e.g. a RingBufferTraceSink)
+   */
+  public Subset bp(SubsetFactory factory, SearchListener listener) {
+    BranchAndPruneSolver solver = new BranchAndPruneSolver(target, original, factory);
+    solver.setSearchListener(listener);
+    return solver.solve();
+  }
+
+  /**
+   * branch-and-prune over the values in decreasing order, pruned with suffix
+   * sums and suffix minima
+   */
+  public Subset bpSorted(SubsetFactory factory) {
+    BranchAndPruneSolver solver = new BranchAndPruneSolver(target, original, factory);
+    solver.setSortedPruning(true);
+    return solver.solve();
+  }
+
+  /**
+   * branch-and-prune over (value, multiplicity) pairs: repeated values are
+   * allowed and solutions are multisets
+   */
+  public Subset bpMultiset() {
+    return new MultisetBranchAndPruneSolver(target, original).solve();
+  }
+
+  /**
+   * iterative branch-and-prune (explicit stack, no recursion depth limit)
+   */
+  public Subset bpIterative(SubsetFactory factory) {
+    return new IterativeBranchAndPruneSolver(target, original, factory).solve();
+  }
+
+  /**
+   * parallel branch-and-prune (fork-join, common pool)
+   */
+  public Subset bpParallel(SubsetFactory factory) {
+    return new ParallelBranchAndPruneSolver(target, original, factory).solve();
+  }
+
+  /**
+   * meet in the middle (all solutions, null if the target is unreachable)
+   */
+  public Subset mitm(SubsetFactory factory) {
+    return new MeetInTheMiddleSolver(target, original, factory).solve();
+  }
+
+  /**
+   * Schroeppel-Shamir (all solutions, null if the target is unreachable)
+   */
+  public Subset schroeppelShamir(SubsetFactory factory) {
+    return new SchroeppelShamirSolver(target, original, factory).solve();
+  }
+
+  /**
+   * preprocessing (gcd, oversized and forced elements, complement): solve the
+   * reduced instance, then map its solutions back with lift(). Opt-in: the
+   * solving methods above always work on the original instance
+   */
+  public InstanceReducer preprocess() {
+    return new InstanceReducer(target, original);
+  }
+
+  /**
+   * number of solutions, without building any Subset
+   */
+  public BigInteger count() {
+    return new SolutionCounter(target, original).count();
   }
 
   /**
@@ -0,0 +1,18 @@
+package fr.ssp.api;
+
+/**
+ * Visiteur des solutions d'un sous-ensemble, une solution à la fois.
+ */
+@FunctionalInterface
+public interface SolutionVisitor {
+
+  /**
+   * Reçoit une solution. Le tableau est un tampon réutilisé d'un appel à
+   * l'autre : seules les length premières cases sont significatives, et il ne
+   * doit pas être conservé après le retour (le copier si besoin).
+   * 
+   * @param values les valeurs de la solution
+   * @param length le nombre de valeurs
+   */
+  void visit(long[] values, int length);
+}
@@ -58,6 +58,23 @@ public interface Subset {
    */
   void encapsulate(Subset other);
 
+  /**
+   * Encapsule au plus autant d'ensembles de other qu'il en faut pour que ce
+   * sous-ensemble en compte limit.
+   * 
+   * @param other le sous-ensemble à encapsuler
+   * @param limit le nombre maximal d'ensembles conservés
+   */
+  void encapsulate(Subset other, int limit);
+
+  /**
+   * Parcourt les solutions une à une, sans construire de collection
+   * intermédiaire.
+   * 
+   * @param visitor le visiteur appelé pour chaque solution
+   */
+  void forEachSolution(SolutionVisitor visitor);
+
   /**
    * Retourne une représentation en chaîne de caractères du sous-ensemble.
    * 
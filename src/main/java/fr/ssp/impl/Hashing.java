@@ -0,0 +1,22 @@
+package fr.ssp.impl;
+
+/**
+ * Mélange des valeurs commun aux empreintes des implémentations (SubsetV2,
+ * SubsetV3, SubsetV4).
+ */
+final class Hashing {
+
+  private Hashing() {
+  }
+
+  /**
+   * Une étape de SplitMix64 : la valeur décalée du gamma 0x9E3779B97F4A7C15
+   * puis le finaliseur ; 0 n'est donc pas un point fixe.
+   */
+  static long mix(long value) {
+    long z = value + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
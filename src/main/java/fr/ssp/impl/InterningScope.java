@@ -0,0 +1,126 @@
+package fr.ssp.impl;
+
+import fr.ssp.api.Subset;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Table d'unicité des nœuds SubsetV2, comme dans les paquetages de BDD : un
+ * nœud est identifié par sa somme et par ses sous-ensembles de référence (les
+ * parents eux-mêmes, comparés par identité), la valeur de chaque branche étant
+ * la différence des sommes. Deux nœuds de même structure sont remplacés par un
+ * seul représentant.
+ *
+ * Les représentants sont des instantanés figés (voir SubsetV2) : ils sont
+ * partagés et ne se modifient plus. encapsulate() réunit deux familles sans
+ * toucher aux représentants, en copiant le premier nœud s'il est figé ;
+ * detach() rend un nœud modifiable à l'appelant du solveur.
+ *
+ * Non thread-safe : une table par résolution.
+ */
+class InterningScope extends SubsetScope {
+
+  private final Map<Key, SubsetV2> table = new HashMap<>();
+
+  InterningScope() {
+    super(SubsetFactory.V2);
+  }
+
+  /**
+   * Le représentant s'il existe déjà, cherché avant toute allocation ; sinon
+   * un nouveau nœud, qui n'est pas ajouté à la table : seuls les nœuds
+   * conservés par le solveur y entrent (intern), pour que la table ne retienne
+   * pas les nœuds temporaires.
+   */
+  @Override
+  public Subset createSubset(Subset other, long value) {
+    if (!(other instanceof SubsetV2))
+      return super.createSubset(other, value);
+    SubsetV2 parent = ((SubsetV2) other).snapshot();
+    SubsetV2 unique = this.table.get(new Key(parent.getSum() + value, parent));
+    return unique == null ? super.createSubset(parent, value) : unique;
+  }
+
+  @Override
+  public Subset encapsulate(Subset subset, Subset other, int limit) {
+    if (!(subset instanceof SubsetV2) || !((SubsetV2) subset).isFrozen())
+      return super.encapsulate(subset, other, limit);
+    SubsetV2 node = (SubsetV2) subset;
+    if (other instanceof SubsetV2 && node.includes((SubsetV2) other))
+      return node;
+    SubsetV2 merged = new SubsetV2();
+    merged.clone(node);
+    merged.encapsulate(other, limit);
+    return merged;
+  }
+
+  @Override
+  public Subset intern(Subset subset) {
+    if (!(subset instanceof SubsetV2))
+      return subset;
+    SubsetV2 node = ((SubsetV2) subset).snapshot();
+    SubsetV2 unique = this.table.putIfAbsent(new Key(node), node);
+    return unique == null ? node : unique;
+  }
+
+  @Override
+  public Subset detach(Subset subset) {
+    if (!(subset instanceof SubsetV2) || !((SubsetV2) subset).isFrozen())
+      return subset;
+    SubsetV2 copy = new SubsetV2();
+    copy.clone((SubsetV2) subset);
+    return copy;
+  }
+
+  @Override
+  public int size() {
+    return this.table.size();
+  }
+
+  /**
+   * somme et parents d'un nœud de la table, ou d'un nœud à un seul parent pas
+   * encore créé (recherche de createSubset)
+   */
+  private static final class Key {
+    private final long sum;
+    private final SubsetV2 node; // nœud de la table, ou null
+    private final SubsetV2 parent; // seul parent du nœud cherché, si node est null
+    private final int hash;
+
+    Key(SubsetV2 node) {
+      this.sum = node.getSum();
+      this.node = node;
+      this.parent = null;
+      this.hash = 31 * Long.hashCode(this.sum) + node.parentsHash();
+    }
+
+    Key(long sum, SubsetV2 parent) {
+      this.sum = sum;
+      this.node = null;
+      this.parent = parent;
+      this.hash = 31 * Long.hashCode(sum) + System.identityHashCode(parent);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key))
+        return false;
+      Key other = (Key) o;
+      if (this.sum != other.sum || this.hash != other.hash)
+        return false;
+      if (this.node != null && other.node != null)
+        return this.node.sameParents(other.node);
+      if (this.node != null)
+        return this.node.onlyParent(other.parent);
+      if (other.node != null)
+        return other.node.onlyParent(this.parent);
+      return this.parent == other.parent;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+}
@@ -0,0 +1,336 @@
+package fr.ssp.impl;
+
+/* Subset in Java
+ *
+ * for an object-oriented approach to the SSP
+ *
+ * AM
+ */
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import fr.ssp.api.SolutionVisitor;
+import fr.ssp.api.Subset;
+
+/**
+ * MultisetSubset is an implementation of the Subset interface whose sets may
+ * contain the same integer several times.
+ *
+ * Each multiset is stored as (value, multiplicity) pairs sorted by value, so
+ * that a value repeated k times costs one pair instead of k elements, and two
+ * multisets compare by value whatever the order they were built in.
+ */
+public class MultisetSubset implements Subset {
+
+   /*
+    * attributes
+    */
+   private Set<Multiset> set; // set of multisets of integers
+   private long sum; // sum of these integers
+
+   /*
+    * constructor for empty subset
+    */
+   public MultisetSubset() {
+      this.set = new LinkedHashSet<Multiset>();
+      this.set.add(new Multiset(new long[0], new int[0]));
+      this.sum = 0;
+   }
+
+   /*
+    * constructor for subset with one multiset
+    *
+    * @param values the values
+    *
+    * @param counts the multiplicity of each value
+    *
+    * @throws IllegalArgumentException if the arrays do not match, a
+    * multiplicity is negative or the sum overflows a long
+    */
+   public MultisetSubset(long[] values, int[] counts) throws IllegalArgumentException {
+      Multiset multiset = Multiset.of(values, counts);
+      this.set = new LinkedHashSet<Multiset>();
+      this.set.add(multiset);
+      this.sum = multiset.sum();
+   }
+
+   /*
+    * adding another multiset with the same sum
+    *
+    * @param values the values
+    *
+    * @param counts the multiplicity of each value
+    *
+    * @throws IllegalArgumentException if the sum does not correspond
+    */
+   public void add(long[] values, int[] counts) throws IllegalArgumentException {
+      Multiset multiset = Multiset.of(values, counts);
+      if (multiset.sum() != this.sum)
+         throw new IllegalArgumentException("Multiset sum " + multiset.sum() + " differs from " + this.sum);
+      this.set.add(multiset);
+   }
+
+   /*
+    * getter for the cardinality of this Subset (number of multisets)
+    */
+   public int getCardinality() {
+      return this.set.size();
+   }
+
+   /*
+    * getter for the sum of the subsets
+    */
+   public long getSum() {
+      return this.sum;
+   }
+
+   /*
+    * cloning another subset so that this will correspond to it
+    *
+    * @param other the subset to clone
+    *
+    * @throws IllegalArgumentException if the subset is null
+    */
+   @Override
+   public void clone(Subset other) throws IllegalArgumentException {
+      if (other instanceof MultisetSubset) {
+         this.clone((MultisetSubset) other);
+      } else {
+         throw new IllegalArgumentException("Other subset cannot be cloned");
+      }
+   }
+
+   public void clone(MultisetSubset other) throws IllegalArgumentException {
+      if (other == null)
+         throw new IllegalArgumentException("Other subset cannot be null");
+      this.sum = other.sum;
+      this.set = new LinkedHashSet<Multiset>(other.set); // multisets are immutable
+   }
+
+   /*
+    * encapsulating another subset in this (the sum must correspond to this.sum)
+    *
+    * @param other the subset to encapsulate
+    *
+    * @throws IllegalArgumentException if the subset is null
+    */
+   @Override
+   public void encapsulate(Subset other) throws IllegalArgumentException {
+      this.encapsulate(other, Integer.MAX_VALUE);
+   }
+
+   /*
+    * encapsulating another subset in this, keeping at most limit multisets
+    *
+    * @param other the subset to encapsulate
+    *
+    * @param limit the maximum number of multisets
+    *
+    * @throws IllegalArgumentException if the subset is null
+    */
+   @Override
+   public void encapsulate(Subset other, int limit) throws IllegalArgumentException {
+      if (!(other instanceof MultisetSubset))
+         throw new IllegalArgumentException("Other subset cannot be encapsulated");
+      Iterator<Multiset> it = ((MultisetSubset) other).set.iterator();
+      while (this.set.size() < limit && it.hasNext())
+         this.set.add(it.next());
+   }
+
+   /*
+    * verifying whether this.sum satisfies some given bounds
+    *
+    * @param lb lower bound
+    *
+    * @param ub upper bound
+    *
+    * @return true if this.sum satisfies the bounds, false otherwise
+    */
+   public boolean satisfiesBounds(long lb, long ub) {
+      return lb <= this.sum && this.sum <= ub;
+   }
+
+   /*
+    * visiting the multisets one at a time, each value repeated according to
+    * its multiplicity
+    *
+    * @param visitor the visitor
+    */
+   @Override
+   public void forEachSolution(SolutionVisitor visitor) {
+      long[] buffer = new long[16];
+      for (Multiset multiset : this.set) {
+         int length = 0;
+         for (int k = 0; k < multiset.values.length; k++) {
+            if (length + multiset.counts[k] > buffer.length)
+               buffer = Arrays.copyOf(buffer, Math.max(length + multiset.counts[k], 2 * buffer.length));
+            Arrays.fill(buffer, length, length + multiset.counts[k], multiset.values[k]);
+            length += multiset.counts[k];
+         }
+         visitor.visit(buffer, length);
+      }
+   }
+
+   /*
+    * checking if this subset is equal to another subset
+    *
+    * @param o the subset to compare
+    *
+    * @return true if this subset is equal to o, false otherwise
+    */
+   @Override
+   public boolean equals(Object o) {
+      if (!(o instanceof MultisetSubset))
+         return false;
+      MultisetSubset subset = (MultisetSubset) o;
+      return this.sum == subset.sum && this.set.equals(subset.set);
+   }
+
+   /*
+    * computing the hash code of this subset
+    *
+    * @return the hash code
+    */
+   @Override
+   public int hashCode() {
+      int hash = (int) this.sum;
+      for (Multiset multiset : this.set)
+         hash = hash + multiset.hashCode();
+      return hash;
+   }
+
+   /*
+    * returning a string representation of this subset (repeated values are
+    * written value^multiplicity)
+    *
+    * @return the string representation
+    */
+   @Override
+   public String toString() {
+      return SubsetText.toString(this);
+   }
+
+   /*
+    * returning a string representation of this subset in Julia style
+    *
+    * @return the string representation
+    */
+   public String show() {
+      String s = "Subset(" + this.set.size() + " multiset";
+      if (this.set.size() > 1)
+         s = s + "s";
+      return s + " with sum " + this.sum + ")";
+   }
+
+   /**
+    * Retourne un ensemble contenant toutes les valeurs uniques de ce sous-ensemble
+    *
+    * @return l'ensemble des valeurs
+    */
+   public Set<Long> getValues() {
+      Set<Long> result = new HashSet<>();
+      for (Multiset multiset : this.set)
+         for (long value : multiset.values)
+            result.add(value);
+      return result;
+   }
+
+   /**
+    * Multiplicité d'une valeur dans chacun des multi-ensembles, dans l'ordre de
+    * la famille
+    *
+    * @param value la valeur
+    * @return les multiplicités (0 si la valeur est absente)
+    */
+   public int[] getMultiplicities(long value) {
+      int[] result = new int[this.set.size()];
+      int i = 0;
+      for (Multiset multiset : this.set) {
+         int k = Arrays.binarySearch(multiset.values, value);
+         result[i++] = k < 0 ? 0 : multiset.counts[k];
+      }
+      return result;
+   }
+
+   /*
+    * immutable multiset: distinct values in increasing order and their (positive)
+    * multiplicities
+    */
+   private static final class Multiset {
+      private final long[] values;
+      private final int[] counts;
+
+      private Multiset(long[] values, int[] counts) {
+         this.values = values;
+         this.counts = counts;
+      }
+
+      static Multiset of(long[] values, int[] counts) {
+         if (values == null || counts == null || values.length != counts.length)
+            throw new IllegalArgumentException("Values and multiplicities must have the same length");
+         int m = 0;
+         for (int count : counts) {
+            if (count < 0)
+               throw new IllegalArgumentException("Multiplicity cannot be negative");
+            if (count > 0)
+               m++;
+         }
+         long[][] pairs = new long[m][];
+         m = 0;
+         for (int k = 0; k < values.length; k++) {
+            if (counts[k] > 0)
+               pairs[m++] = new long[] { values[k], counts[k] };
+         }
+         Arrays.sort(pairs, (a, b) -> Long.compare(a[0], b[0]));
+         long[] v = new long[m];
+         int[] c = new int[m];
+         int size = 0;
+         for (long[] pair : pairs) {
+            if (size > 0 && v[size - 1] == pair[0]) {
+               long count = c[size - 1] + pair[1];
+               if (count > Integer.MAX_VALUE)
+                  throw new IllegalArgumentException("Multiplicity overflows an int");
+               c[size - 1] = (int) count;
+            } else {
+               v[size] = pair[0];
+               c[size++] = (int) pair[1];
+            }
+         }
+         return new Multiset(Arrays.copyOf(v, size), Arrays.copyOf(c, size));
+      }
+
+      /*
+       * sum of the multiset, in exact arithmetic (values are in increasing
+       * order, so the partial sums stay between the sum of the negative terms
+       * and the sum of the positive ones)
+       *
+       * @throws IllegalArgumentException if the sum overflows a long
+       */
+      long sum() {
+         try {
+            long sum = 0;
+            for (int k = 0; k < this.values.length; k++)
+               sum = Math.addExact(sum, Math.multiplyExact(this.values[k], (long) this.counts[k]));
+            return sum;
+         } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Sum of the multiset overflows a long");
+         }
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (!(o instanceof Multiset))
+            return false;
+         Multiset other = (Multiset) o;
+         return Arrays.equals(this.values, other.values) && Arrays.equals(this.counts, other.counts);
+      }
+
+      @Override
+      public int hashCode() {
+         return 31 * Arrays.hashCode(this.values) + Arrays.hashCode(this.counts);
+      }
+   }
+}
@@ -40,6 +40,49 @@ public enum SubsetFactory {
       }
       return new SubsetV2((SubsetV2) other, value);
     }
+
+    @Override
+    public SubsetScope newScope() {
+      return new InterningScope();
+    }
+  },
+  V3 {
+    @Override
+    public Subset createSubset() {
+      return new SubsetV3();
+    }
+
+    @Override
+    public Subset createSubset(long value) {
+      return new SubsetV3(value);
+    }
+
+    @Override
+    public Subset createSubset(Subset other, long value) {
+      if (!(other instanceof SubsetV3)) {
+        throw new IllegalArgumentException("Expected SubsetV3 instance");
+      }
+      return new SubsetV3((SubsetV3) other, value);
+    }
+  },
+  V4 {
+    @Override
+    public Subset createSubset() {
+      return new SubsetV4();
+    }
+
+    @Override
+    public Subset createSubset(long value) {
+      return new SubsetV4(value);
+    }
+
+    @Override
+    public Subset createSubset(Subset other, long value) {
+      if (!(other instanceof SubsetV4)) {
+        throw new IllegalArgumentException("Expected SubsetV4 instance");
+      }
+      return new SubsetV4((SubsetV4) other, value);
+    }
   };
 
   public abstract Subset createSubset();
@@ -47,4 +90,12 @@ public enum SubsetFactory {
   public abstract Subset createSubset(long value);
 
   public abstract Subset createSubset(Subset other, long value);
+
+  /**
+   * Ouvre une portée de création propre à une résolution (table d'unicité des
+   * nœuds pour V2)
+   */
+  public SubsetScope newScope() {
+    return new SubsetScope(this);
+  }
 }
@@ -0,0 +1,71 @@
+package fr.ssp.impl;
+
+import fr.ssp.api.Subset;
+
+/**
+ * Fabrique de sous-ensembles propre à une résolution (voir
+ * SubsetFactory.newScope()).
+ *
+ * Par défaut, elle délègue à la fabrique ; avec SubsetV2, elle tient une
+ * table d'unicité qui partage les nœuds identiques. La table n'est référencée
+ * que par le solveur pendant la résolution : elle est libérée avec la portée.
+ */
+public class SubsetScope {
+
+  private final SubsetFactory factory;
+
+  SubsetScope(SubsetFactory factory) {
+    this.factory = factory;
+  }
+
+  public Subset createSubset() {
+    return this.factory.createSubset();
+  }
+
+  public Subset createSubset(Subset other, long value) {
+    return this.factory.createSubset(other, value);
+  }
+
+  /**
+   * Ajoute les solutions de other à celles de subset (Subset.encapsulate) et
+   * retourne le résultat : subset lui-même, ou une copie si subset est un
+   * représentant partagé de la table d'unicité
+   *
+   * @param subset le sous-ensemble à compléter
+   * @param other  le sous-ensemble à ajouter
+   * @param limit  le nombre maximal d'ensembles
+   * @return le sous-ensemble complété, à utiliser à la place de subset
+   */
+  public Subset encapsulate(Subset subset, Subset other, int limit) {
+    subset.encapsulate(other, limit);
+    return subset;
+  }
+
+  /**
+   * Retourne le représentant d'un sous-ensemble qui ne sera plus modifié (le
+   * sous-ensemble lui-même s'il est le premier de sa forme)
+   *
+   * @param subset le sous-ensemble
+   * @return son représentant, à ne plus modifier qu'à travers encapsulate
+   */
+  public Subset intern(Subset subset) {
+    return subset;
+  }
+
+  /**
+   * Version modifiable d'un sous-ensemble, à retourner par le solveur
+   *
+   * @param subset le sous-ensemble, éventuellement partagé
+   * @return subset, ou une copie s'il est partagé
+   */
+  public Subset detach(Subset subset) {
+    return subset;
+  }
+
+  /**
+   * Nombre de nœuds distincts de la table d'unicité (0 sans table)
+   */
+  public int size() {
+    return 0;
+  }
+}
@@ -0,0 +1,136 @@
+package fr.ssp.impl;
+
+import fr.ssp.api.Subset;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Rendu texte commun des sous-ensembles : "sum = " puis une solution par
+ * ligne, " (a,b,c)". Les toString des implémentations et le format
+ * SolutionFormat.TEXT passent tous par ici ; SubsetV2 garde sa mise en page
+ * d'origine, "sum =" puis "  (a,b,c)", à partir de toString(subset, prefix).
+ *
+ * Les solutions sont parcourues une à une par forEachSolution et écrites
+ * directement dans l'Appendable, sans chaîne intermédiaire. Dans le texte, une
+ * valeur répétée k fois de suite s'écrit "v^k" (multiensembles de
+ * MultisetSubset, dont les solutions sont triées) ; CSV et NDJSON gardent
+ * chaque occurrence (appendValues).
+ */
+public final class SubsetText {
+
+  /**
+   * début de ligne d'une solution
+   */
+  public static final String PREFIX = " (";
+
+  private SubsetText() {
+  }
+
+  /**
+   * Écrit l'en-tête "sum = "
+   */
+  public static void appendHeader(Subset subset, Appendable out) throws IOException {
+    out.append(Long.toString(subset.getSum())).append(" = ");
+  }
+
+  /**
+   * Écrit une solution sur une nouvelle ligne : "\n (a,b,c)"
+   */
+  public static void appendSolution(long[] values, int length, Appendable out) throws IOException {
+    appendSolution(values, length, PREFIX, out);
+  }
+
+  /**
+   * Écrit une solution sur une nouvelle ligne, avec un autre début de ligne
+   */
+  public static void appendSolution(long[] values, int length, String prefix, Appendable out) throws IOException {
+    out.append('\n').append(prefix);
+    appendRuns(values, length, out);
+    out.append(')');
+  }
+
+  /**
+   * Écrit les valeurs séparées par des virgules, une suite de k valeurs égales
+   * sous la forme "v^k"
+   */
+  public static void appendRuns(long[] values, int length, Appendable out) throws IOException {
+    for (int k = 0; k < length;) {
+      int run = 1;
+      while (k + run < length && values[k + run] == values[k])
+        run++;
+      if (k > 0)
+        out.append(',');
+      out.append(Long.toString(values[k]));
+      if (run > 1)
+        out.append('^').append(Integer.toString(run));
+      k += run;
+    }
+  }
+
+  /**
+   * Écrit les valeurs séparées par des virgules
+   */
+  public static void appendValues(long[] values, int length, Appendable out) throws IOException {
+    for (int k = 0; k < length; k++) {
+      if (k > 0)
+        out.append(',');
+      out.append(Long.toString(values[k]));
+    }
+  }
+
+  /**
+   * Écrit l'en-tête puis toutes les solutions
+   */
+  public static void append(Subset subset, Appendable out) throws IOException {
+    appendHeader(subset, out);
+    appendSolutions(subset, PREFIX, out);
+  }
+
+  /**
+   * Rendu complet dans une chaîne (toString des implémentations)
+   */
+  public static String toString(Subset subset) {
+    StringBuilder s = new StringBuilder();
+    try {
+      append(subset, s);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // impossible avec un StringBuilder
+    }
+    return s.toString();
+  }
+
+  /**
+   * Les solutions seules, une par ligne commençant par prefix, séparées par des
+   * retours à la ligne (SubsetV2.toString(prefix))
+   */
+  public static String toString(Subset subset, String prefix) {
+    StringBuilder s = new StringBuilder();
+    subset.forEachSolution((values, length) -> {
+      if (s.length() > 0)
+        s.append('\n');
+      s.append(prefix);
+      try {
+        appendRuns(values, length, s);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e); // impossible avec un StringBuilder
+      }
+      s.append(')');
+    });
+    return s.toString();
+  }
+
+  private static void appendSolutions(Subset subset, String prefix, Appendable out) throws IOException {
+    try {
+      subset.forEachSolution((values, length) -> {
+        try {
+          appendSolution(values, length, prefix, out);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+}
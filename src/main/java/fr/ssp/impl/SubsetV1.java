@@ -10,6 +10,7 @@ package fr.ssp.impl;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.Iterator;
+import fr.ssp.api.SolutionVisitor;
 import fr.ssp.api.Subset;
 
 /**
@@ -120,6 +121,32 @@ public class SubsetV1 implements Subset {
       this.set.addAll(other.set);
    }
 
+   /*
+    * encapsulating another subset in this, keeping at most limit sets
+    * 
+    * @param other the subset to encapsulate
+    * 
+    * @param limit the maximum number of sets
+    * 
+    * @throws IllegalArgumentException if the subset is null
+    */
+   @Override
+   public void encapsulate(Subset other, int limit) throws IllegalArgumentException {
+      if (other instanceof SubsetV1) {
+         this.encapsulate((SubsetV1) other, limit);
+      } else {
+         throw new IllegalArgumentException("Other subset cannot be encapsulated");
+      }
+   }
+
+   public void encapsulate(SubsetV1 other, int limit) throws IllegalArgumentException {
+      if (other == null)
+         throw new IllegalArgumentException("Cannot encapsulate null subset");
+      Iterator<HashSet<Long>> it = other.set.iterator();
+      while (this.set.size() < limit && it.hasNext())
+         this.set.add(it.next());
+   }
+
    /*
     * verifying whether this.sum satisfies some given bounds
     * 
@@ -169,24 +196,31 @@ public class SubsetV1 implements Subset {
    }
 
    /*
-    * returning a string representation of this subset
+    * visiting the subsets of integers one at a time
     * 
-    * @return the string representation
+    * @param visitor the visitor
     */
    @Override
-   public String toString() {
-      String s = this.sum + " = ";
+   public void forEachSolution(SolutionVisitor visitor) {
+      long[] buffer = new long[8];
       for (Set<Long> sub : this.set) {
-         s = s + "\n (";
-         Iterator<Long> it = sub.iterator();
-         while (it.hasNext()) {
-            s = s + it.next();
-            if (it.hasNext())
-               s = s + ",";
-         }
-         s = s + ")";
+         if (sub.size() > buffer.length)
+            buffer = new long[Math.max(sub.size(), 2 * buffer.length)];
+         int length = 0;
+         for (long value : sub)
+            buffer[length++] = value;
+         visitor.visit(buffer, length);
       }
-      return s;
+   }
+
+   /*
+    * returning a string representation of this subset (see SubsetText)
+    * 
+    * @return the string representation
+    */
+   @Override
+   public String toString() {
+      return SubsetText.toString(this);
    }
 
    /*
@@ -7,30 +7,86 @@ package fr.ssp.impl;
  * AM
  */
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import fr.ssp.api.SolutionVisitor;
 import fr.ssp.api.Subset;
 
 /**
  * SubsetV2 is an implementation of the Subset interface.
+ *
+ * Chaque nœud porte une empreinte de sa famille de solutions, calculée
+ * incrémentalement à chaque lien : la famille {∅} vaut 1 et une solution S
+ * contribue le produit des poids w(v), v dans S, modulo le nombre premier
+ * 2^61 - 1, si bien qu'un nœud vaut la somme sur ses parents p de
+ * w(sum - p.sum) * empreinte(p). Deux familles égales ont la même empreinte :
+ * equals, hashCode, sameFamily et la déduplication de encapsulate s'en
+ * servent pour écarter en O(1) les familles différentes, puis confirment
+ * l'égalité exactement (mêmes parents, ou à défaut mêmes chemins). Un masque
+ * de 64 bits résume en outre l'union des valeurs.
+ *
+ * Un nœud référencé comme parent l'est par un instantané figé, qui partage
+ * ses sous-ensembles de référence jusqu'à la modification suivante du nœud
+ * (copie à l'écriture) : modifier un nœud ne change donc jamais les familles
+ * des nœuds construits à partir de lui. Les instantanés (getSubsets) ne se
+ * modifient pas.
  */
 public class SubsetV2 implements Subset {
 
    /*
     * attributes
     */
-   private Set<SubsetV2> set; // set of reference subsets
+   private Map<Long, SubsetV2> set; // reference subsets, by branch contribution
    private long sum; // common sum for all subsets + last integer
    private int cardinality; // cached cardinality
+   private long fingerprint; // fingerprint of the family of sets
+   private long mask; // one bit per value (hashed) of the union of the sets
+   private final boolean frozen; // snapshot referenced as a parent
+   private boolean shared; // this.set is shared with this.snapshot
+   private SubsetV2 snapshot; // frozen copy of the current state, if any
+
+   private static final long PRIME = (1L << 61) - 1;
+
+   private static final SubsetV2 EMPTY = new SubsetV2().snapshot();
 
    /*
     * constructor for empty subset
     */
    public SubsetV2() {
-      this.set = new HashSet<SubsetV2>();
+      this.set = new HashMap<Long, SubsetV2>();
       this.sum = 0;
       this.cardinality = 0;
+      this.fingerprint = 1; // {∅}
+      this.mask = 0;
+      this.frozen = false;
+   }
+
+   /*
+    * frozen copy of a node, sharing its reference subsets
+    * 
+    * @param node the node to copy
+    */
+   private SubsetV2(SubsetV2 node) {
+      this.set = node.set;
+      this.sum = node.sum;
+      this.cardinality = node.cardinality;
+      this.fingerprint = node.fingerprint;
+      this.mask = node.mask;
+      this.frozen = true;
    }
 
    /*
@@ -39,10 +95,11 @@ public class SubsetV2 implements Subset {
     * @param value the value to add
     */
    public SubsetV2(long value) {
-      this.set = new HashSet<SubsetV2>();
-      this.set.add(new SubsetV2());
+      this.set = new HashMap<Long, SubsetV2>();
       this.sum = value;
       this.cardinality = 1;
+      this.frozen = false;
+      this.link(EMPTY);
    }
 
    /*
@@ -58,12 +115,191 @@ public class SubsetV2 implements Subset {
    public SubsetV2(SubsetV2 subset, long value) throws IllegalArgumentException {
       if (subset == null)
          throw new IllegalArgumentException("Subset cannot be null; use constructor for empty Subset");
-      if (subset.getValues().contains(value))
+      if ((subset.mask & bit(value)) != 0 && subset.getValues().contains(value))
          throw new IllegalArgumentException("Value " + value + " already in subset");
-      this.set = new HashSet<SubsetV2>();
-      this.set.add(subset);
+      this.set = new HashMap<Long, SubsetV2>();
       this.sum = subset.getSum() + value;
       this.cardinality = subset.getCardinality() + 1;
+      this.frozen = false;
+      this.link(subset);
+   }
+
+   /*
+    * adding a reference subset (through its snapshot) and updating the
+    * fingerprint and the mask; the caller has called beforeChange()
+    * 
+    * @param parent the reference subset
+    * 
+    * @return true if it was not already referenced
+    */
+   private boolean link(SubsetV2 parent) {
+      parent = parent.snapshot();
+      long value = this.sum - parent.sum;
+      long branch = mulMod(weight(value), parent.fingerprint);
+      // branches are indexed by their contribution; a collision between two
+      // different branches moves the second one to the next free key
+      long key = branch;
+      for (SubsetV2 existing; (existing = this.set.get(key)) != null; key++) {
+         if (existing.sum == parent.sum && samePaths(existing, parent))
+            return false;
+      }
+      this.set.put(key, parent);
+      long previous = this.set.size() == 1 ? 0 : this.fingerprint; // no more {∅} once linked
+      this.fingerprint = addMod(previous, branch);
+      this.mask |= parent.mask | bit(value);
+      return true;
+   }
+
+   /*
+    * frozen copy of the current state, shared until the next modification
+    * 
+    * @return the snapshot (this if this node is itself a snapshot)
+    */
+   SubsetV2 snapshot() {
+      if (this.frozen)
+         return this;
+      if (this.snapshot == null) {
+         this.snapshot = new SubsetV2(this);
+         this.shared = true;
+      }
+      return this.snapshot;
+   }
+
+   /*
+    * true for a snapshot, which cannot be modified
+    */
+   boolean isFrozen() {
+      return this.frozen;
+   }
+
+   /*
+    * hash of the reference subsets by identity (see InterningScope)
+    */
+   int parentsHash() {
+      int hash = 0;
+      for (SubsetV2 parent : this.set.values())
+         hash += System.identityHashCode(parent);
+      return hash;
+   }
+
+   /*
+    * true if both nodes reference the very same subsets (see InterningScope)
+    */
+   boolean sameParents(SubsetV2 other) {
+      if (this.set.size() != other.set.size())
+         return false;
+      for (Map.Entry<Long, SubsetV2> entry : this.set.entrySet()) {
+         if (other.set.get(entry.getKey()) != entry.getValue())
+            return false;
+      }
+      return true;
+   }
+
+   /*
+    * true if every reference subset of other is already referenced here, so
+    * that encapsulating other would change nothing (see InterningScope)
+    */
+   boolean includes(SubsetV2 other) {
+      for (SubsetV2 parent : other.set.values()) {
+         if (!this.contains(parent))
+            return false;
+      }
+      return true;
+   }
+
+   /*
+    * true if this node references exactly one subset, the given one
+    */
+   boolean onlyParent(SubsetV2 parent) {
+      return this.set.size() == 1 && this.set.values().iterator().next() == parent;
+   }
+
+   /*
+    * to be called before any modification: the reference subsets are copied
+    * if a snapshot still shares them
+    * 
+    * @throws IllegalStateException if this node is a snapshot
+    */
+   private void beforeChange() {
+      if (this.frozen)
+         throw new IllegalStateException("A reference subset cannot be modified");
+      if (this.shared) {
+         this.set = new HashMap<Long, SubsetV2>(this.set);
+         this.shared = false;
+      }
+      this.snapshot = null;
+   }
+
+   /*
+    * getter for the fingerprint of the family of sets (equal families have
+    * equal fingerprints)
+    * 
+    * @return the fingerprint
+    */
+   public long getFingerprint() {
+      return this.fingerprint;
+   }
+
+   /*
+    * check if this subset has the same sum and the same family of sets as
+    * another one (different fingerprints rule it out at once, equal ones are
+    * confirmed exactly)
+    * 
+    * @param other the other subset
+    * 
+    * @return true if the families are equal
+    */
+   public boolean sameFamily(SubsetV2 other) {
+      return other != null && this.sum == other.sum && samePaths(this, other);
+   }
+
+   /*
+    * exact comparison of the paths of two nodes of the same sum: the
+    * fingerprints first, then the reference subsets, then the paths
+    * themselves as multisets of sorted values
+    */
+   private static boolean samePaths(SubsetV2 a, SubsetV2 b) {
+      if (a == b)
+         return true;
+      if (a.fingerprint != b.fingerprint || a.mask != b.mask)
+         return false;
+      if (sameBranches(a, b, new IdentityHashMap<SubsetV2, SubsetV2>()))
+         return true;
+      return paths(a).equals(paths(b));
+   }
+
+   /*
+    * true if both nodes have the same sum and, key by key, the same reference
+    * subsets (the same nodes, or nodes with the same branches)
+    */
+   private static boolean sameBranches(SubsetV2 a, SubsetV2 b, Map<SubsetV2, SubsetV2> proven) {
+      if (a == b || proven.get(a) == b)
+         return true;
+      if (a.sum != b.sum || a.fingerprint != b.fingerprint || a.set.size() != b.set.size())
+         return false;
+      for (Map.Entry<Long, SubsetV2> entry : a.set.entrySet()) {
+         SubsetV2 other = b.set.get(entry.getKey());
+         if (other == null || !sameBranches(entry.getValue(), other, proven))
+            return false;
+      }
+      proven.put(a, b);
+      return true;
+   }
+
+   /*
+    * the paths of a node, each as its sorted values, with their number
+    */
+   private static Map<List<Long>, Integer> paths(SubsetV2 node) {
+      Map<List<Long>, Integer> paths = new HashMap<List<Long>, Integer>();
+      node.forEachSolution((buffer, length) -> {
+         long[] values = Arrays.copyOf(buffer, length);
+         Arrays.sort(values);
+         List<Long> path = new ArrayList<Long>(length);
+         for (long value : values)
+            path.add(value);
+         paths.merge(path, 1, Integer::sum);
+      });
+      return paths;
    }
 
    /*
@@ -90,32 +326,34 @@ public class SubsetV2 implements Subset {
     * @return the values
     */
    public Set<Long> getValues() {
+      // each node of the DAG is visited once, whatever the number of paths
       Set<Long> values = new HashSet<Long>();
-      collectValues(values);
-      return values;
-   }
-
-   private void collectValues(Set<Long> values) {
-      if (!this.getSubsets().isEmpty()) {
-         Iterator<SubsetV2> it = this.getSubsets().iterator();
-         while (it.hasNext()) {
-            SubsetV2 parent = it.next();
-            long value = this.getSum() - parent.getSum();
-            if (value != 0) {
+      Set<SubsetV2> visited = Collections.newSetFromMap(new IdentityHashMap<SubsetV2, Boolean>());
+      ArrayDeque<SubsetV2> stack = new ArrayDeque<SubsetV2>();
+      stack.push(this);
+      visited.add(this);
+      while (!stack.isEmpty()) {
+         SubsetV2 node = stack.pop();
+         for (SubsetV2 parent : node.set.values()) {
+            long value = node.sum - parent.sum;
+            if (value != 0)
                values.add(value);
-            }
-            parent.collectValues(values);
+            if (visited.add(parent))
+               stack.push(parent);
          }
       }
+      return values;
    }
 
    /*
     * getter for the subsets
     * 
-    * @return the subsets
+    * @return the subsets (read-only snapshots)
     */
    public Set<SubsetV2> getSubsets() {
-      return this.set;
+      Set<SubsetV2> subsets = Collections.newSetFromMap(new IdentityHashMap<SubsetV2, Boolean>());
+      subsets.addAll(this.set.values());
+      return Collections.unmodifiableSet(subsets);
    }
 
    /*
@@ -124,12 +362,14 @@ public class SubsetV2 implements Subset {
     * @param subset the subset to add
     */
    public void addSubset(SubsetV2 subset) {
-      this.set.add(subset);
+      this.beforeChange();
+      this.link(subset);
       this.cardinality++;
    }
 
    /*
-    * check if this subset contains another subset
+    * check if this subset references another subset (same sum and same family
+    * of sets)
     * 
     * @param other the subset to check
     * 
@@ -139,18 +379,13 @@ public class SubsetV2 implements Subset {
       if (other == null) {
          return false;
       }
-
-      // Comparer les valeurs au lieu des références
-      Set<Long> otherValues = other.getValues();
-
-      // Vérifier chaque sous-ensemble pour voir s'il contient les mêmes valeurs
-      for (SubsetV2 sub : this.getSubsets()) {
-         Set<Long> subValues = sub.getValues();
-         if (subValues.equals(otherValues)) {
+      // même somme et même famille qu'un des sous-ensembles de référence,
+      // cherché à partir de la contribution de sa branche
+      long key = mulMod(weight(this.sum - other.sum), other.fingerprint);
+      for (SubsetV2 parent; (parent = this.set.get(key)) != null; key++) {
+         if (parent.sameFamily(other))
             return true;
-         }
       }
-
       return false;
    }
 
@@ -180,11 +415,12 @@ public class SubsetV2 implements Subset {
    public void clone(SubsetV2 other) throws IllegalArgumentException {
       if (other == null)
          throw new IllegalArgumentException("Other subset cannot be null");
+      this.beforeChange();
       this.sum = other.getSum();
-      this.set = new HashSet<SubsetV2>();
+      this.set = new HashMap<Long, SubsetV2>(other.set);
       this.cardinality = other.getCardinality();
-      if (!other.getSubsets().isEmpty())
-         this.getSubsets().addAll(other.getSubsets());
+      this.fingerprint = other.fingerprint;
+      this.mask = other.mask;
    }
 
    /*
@@ -211,27 +447,44 @@ public class SubsetV2 implements Subset {
     * @throws IllegalArgumentException if the subset is null
     */
    public void encapsulate(SubsetV2 other) throws IllegalArgumentException {
+      this.encapsulate(other, Integer.MAX_VALUE);
+   }
+
+   /*
+    * encapsulate a subset, keeping at most limit reference subsets
+    * 
+    * @param other the subset to encapsulate
+    * 
+    * @param limit the maximum number of reference subsets
+    * 
+    * @throws IllegalArgumentException if the subset is null
+    */
+   @Override
+   public void encapsulate(Subset other, int limit) throws IllegalArgumentException {
+      if (other instanceof SubsetV2) {
+         this.encapsulate((SubsetV2) other, limit);
+      } else {
+         throw new IllegalArgumentException("Other subset cannot be encapsulated");
+      }
+   }
+
+   public void encapsulate(SubsetV2 other, int limit) throws IllegalArgumentException {
       if (other == null) {
          throw new IllegalArgumentException("Cannot encapsulate null subset");
       }
-      if (this.equals(other)) {
+      if (this.sameFamily(other)) {
          return;
       }
 
-      // Créer un ensemble pour stocker les ensembles de valeurs déjà présents
-      Set<Set<Long>> existingValueSets = new HashSet<>();
-      for (SubsetV2 sub : this.getSubsets()) {
-         existingValueSets.add(sub.getValues());
-      }
-
+      // les sous-ensembles de référence déjà présents sont reconnus par leur
+      // empreinte, en O(1) chacun
+      this.beforeChange();
       int added = 0;
-      for (SubsetV2 sub : other.getSubsets()) {
-         Set<Long> values = sub.getValues();
-         if (!existingValueSets.contains(values)) {
-            this.set.add(sub);
-            existingValueSets.add(values);
+      for (SubsetV2 sub : other.set.values()) {
+         if (this.set.size() >= limit)
+            break;
+         if (this.link(sub))
             added++;
-         }
       }
       this.cardinality += added;
    }
@@ -250,7 +503,8 @@ public class SubsetV2 implements Subset {
    }
 
    /*
-    * check if this subset is equal to another subset
+    * check if this subset is equal to another subset: same sum and same sets
+    * (the fingerprints rule out most differences, see sameFamily)
     * 
     * @param o the other subset
     * 
@@ -263,54 +517,28 @@ public class SubsetV2 implements Subset {
       boolean isSubset = (o instanceof SubsetV2);
       if (!isSubset)
          return false;
-      SubsetV2 other = (SubsetV2) o;
-      if (this.getSum() != other.getSum() || this.getCardinality() != other.getCardinality())
-         return false;
-      Set<Long> thisValues = this.getValues();
-      Set<Long> otherValues = other.getValues();
-      return thisValues.equals(otherValues);
+      return this.sameFamily((SubsetV2) o);
    }
 
    /*
-    * get the hash code of the subset
+    * get the hash code of the subset, from the sum and the fingerprint
     * 
     * @return the hash code
     */
    @Override
    public int hashCode() {
-      int hash = (int) this.sum;
-      for (SubsetV2 subset : this.set)
-         hash = hash + subset.hashCode();
-      return hash;
+      return 31 * Long.hashCode(this.sum) + Long.hashCode(this.fingerprint);
    }
 
    /*
-    * get the string representation of the subset
+    * get the string representation of the sets, one per line (see SubsetText)
     * 
-    * @param prefix the prefix to add
+    * @param prefix the beginning of each line
     * 
     * @return the string representation
     */
    public String toString(String prefix) {
-      if (this.getSubsets().isEmpty())
-         return prefix + ")";
-      String s = "";
-      Iterator<SubsetV2> it = this.getSubsets().iterator();
-      while (it.hasNext()) {
-         SubsetV2 sub = it.next();
-         String comma = "";
-         if (!sub.getSubsets().isEmpty())
-            comma = ",";
-         long value = this.getSum() - sub.getSum();
-         if (value != 0) {
-            s = s + sub.toString(prefix + value + comma);
-         } else {
-            s = s + sub.toString(prefix);
-         }
-         if (it.hasNext())
-            s = s + "\n";
-      }
-      return s;
+      return SubsetText.toString(this, prefix);
    }
 
    /*
@@ -320,8 +548,7 @@ public class SubsetV2 implements Subset {
     */
    @Override
    public String toString() {
-      String s = this.sum + " =\n";
-      return s + this.toString("  (");
+      return this.sum + " =\n" + this.toString("  (");
    }
 
    /*
@@ -345,14 +572,19 @@ public class SubsetV2 implements Subset {
     * sous-ensemble
     */
    public boolean containsValues(Set<Long> values) {
+      // les valeurs ne sont reconstruites que si les masques correspondent
+      long expected = 0;
+      for (long value : values)
+         expected |= bit(value);
+
       // Vérifier d'abord si les valeurs de cet ensemble correspondent
-      if (this.getValues().equals(values)) {
+      if (this.mask == expected && this.getValues().equals(values)) {
          return true;
       }
 
       // Sinon, vérifier chaque sous-ensemble
-      for (SubsetV2 sub : this.getSubsets()) {
-         if (sub.getValues().equals(values)) {
+      for (SubsetV2 sub : this.set.values()) {
+         if (sub.mask == expected && sub.getValues().equals(values)) {
             return true;
          }
       }
@@ -364,18 +596,161 @@ public class SubsetV2 implements Subset {
     * Méthode spéciale pour la normalisation du résultat de Branch and Prune
     */
    public void normalize() {
-      if (this.getSubsets().isEmpty()) {
+      if (this.set.isEmpty() || this.cardinality == this.set.size()) {
          return;
       }
+      this.beforeChange();
+
+      // Les branches sont indexées par leur contribution à l'empreinte : deux
+      // sous-ensembles de référence qui donnent la même famille une fois la
+      // valeur ajoutée n'en font qu'une
+      this.cardinality = this.set.size();
+   }
+
+   /*
+    * weight of a value in the fingerprints (1 for 0, which is not a value)
+    */
+   private static long weight(long value) {
+      if (value == 0)
+         return 1;
+      return 1 + Long.remainderUnsigned(Hashing.mix(value), PRIME - 1);
+   }
+
+   /*
+    * bit of a value in the masks (none for 0)
+    */
+   private static long bit(long value) {
+      if (value == 0)
+         return 0;
+      return 1L << (Hashing.mix(value) >>> 58);
+   }
+
+   private static long addMod(long a, long b) {
+      long r = a + b;
+      return r >= PRIME ? r - PRIME : r;
+   }
+
+   private static long mulMod(long a, long b) {
+      long high = Math.multiplyHigh(a, b);
+      long low = a * b;
+      long r = (low & PRIME) + ((low >>> 61) | (high << 3));
+      r = (r & PRIME) + (r >>> 61);
+      return r >= PRIME ? r - PRIME : r;
+   }
+
+   /*
+    * visiting the subsets of integers one at a time, walking the DAG depth
+    * first with a single reused buffer (memory in O(depth))
+    * 
+    * @param visitor the visitor
+    */
+   @Override
+   public void forEachSolution(SolutionVisitor visitor) {
+      Walker walker = new Walker(this);
+      int length;
+      while ((length = walker.advance()) >= 0)
+         visitor.visit(walker.buffer, length);
+   }
+
+   /**
+    * Itérateur paresseux sur les solutions : chaque appel à next() parcourt le
+    * DAG jusqu'à la racine suivante et retourne une copie de la solution.
+    * 
+    * @return l'itérateur des solutions
+    */
+   public Iterator<long[]> iterator() {
+      return new Iterator<long[]>() {
+         private final Walker walker = new Walker(SubsetV2.this);
+         private int length = this.walker.advance();
+
+         public boolean hasNext() {
+            return this.length >= 0;
+         }
+
+         public long[] next() {
+            if (this.length < 0)
+               throw new NoSuchElementException();
+            long[] values = Arrays.copyOf(this.walker.buffer, this.length);
+            this.length = this.walker.advance();
+            return values;
+         }
+      };
+   }
+
+   /**
+    * Flux séquentiel et paresseux des solutions (voir iterator())
+    * 
+    * @return le flux des solutions
+    */
+   public Stream<long[]> stream() {
+      return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(this.iterator(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+   }
+
+   /*
+    * depth-first walk of the DAG from a node to the empty subsets: every path
+    * is a solution whose values are the (non zero) sum differences along it
+    */
+   private static final class Walker {
+      private long[] buffer = new long[16];
+      private SubsetV2[] nodes = new SubsetV2[16];
+      private Iterator<?>[] parents = new Iterator<?>[16];
+      private int[] lengths = new int[16];
+      private int depth;
+      private boolean leaf; // the start node is itself an empty subset
+
+      private Walker(SubsetV2 start) {
+         this.leaf = start.set.isEmpty();
+         if (!this.leaf)
+            this.push(start, 0);
+      }
 
-      // Collecter tous les ensembles de valeurs uniques
-      Set<Set<Long>> uniqueValueSets = new HashSet<>();
-      for (SubsetV2 sub : new HashSet<>(this.getSubsets())) {
-         uniqueValueSets.add(sub.getValues());
+      /*
+       * moves to the next solution
+       * 
+       * @return its length in buffer, or -1 when the walk is over
+       */
+      private int advance() {
+         if (this.leaf) {
+            this.leaf = false;
+            return 0;
+         }
+         while (this.depth > 0) {
+            int top = this.depth - 1;
+            Iterator<?> it = this.parents[top];
+            if (!it.hasNext()) {
+               this.nodes[top] = null;
+               this.parents[top] = null;
+               this.depth--;
+               continue;
+            }
+            SubsetV2 parent = (SubsetV2) it.next();
+            int length = this.lengths[top];
+            long value = this.nodes[top].sum - parent.sum;
+            if (value != 0) {
+               if (length == this.buffer.length)
+                  this.buffer = Arrays.copyOf(this.buffer, 2 * length);
+               this.buffer[length++] = value;
+            }
+            if (parent.set.isEmpty())
+               return length;
+            this.push(parent, length);
+         }
+         return -1;
       }
 
-      // Mettre à jour la cardinalité
-      this.cardinality = uniqueValueSets.size();
+      private void push(SubsetV2 node, int length) {
+         if (this.depth == this.nodes.length) {
+            int capacity = 2 * this.depth;
+            this.nodes = Arrays.copyOf(this.nodes, capacity);
+            this.parents = Arrays.copyOf(this.parents, capacity);
+            this.lengths = Arrays.copyOf(this.lengths, capacity);
+         }
+         this.nodes[this.depth] = node;
+         this.parents[this.depth] = node.set.values().iterator();
+         this.lengths[this.depth] = length;
+         this.depth++;
+      }
    }
 
    // main
@@ -0,0 +1,492 @@
+package fr.ssp.impl;
+
+/* Subset in Java
+ *
+ * for an object-oriented approach to the SSP
+ *
+ * AM
+ */
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import fr.ssp.api.SolutionVisitor;
+import fr.ssp.api.Subset;
+
+/**
+ * SubsetV3 is an implementation of the Subset interface where each set of
+ * integers is a bitmask over element indices.
+ *
+ * Values are mapped to indices by a Universe shared by every subset derived
+ * from the same root; the whole family lives in one contiguous long[] made of
+ * blocks of `stride` words (a single long as long as there are at most 64
+ * distinct values). Deduplication in encapsulate goes through an
+ * open-addressing table over the blocks, keyed by a value-based hash, so that
+ * two subsets built on different universes still compare by value.
+ */
+public class SubsetV3 implements Subset {
+
+   /*
+    * attributes
+    */
+   private Universe universe; // value <-> bit index
+   private long[] words; // count blocks of stride words
+   private long[] hashes; // hash of each block: sum of Hashing.mix of its values
+   private int stride;
+   private int count;
+   private long sum; // sum of these integers
+   private int[] table; // dedup table (block index + 1, 0 = empty), built lazily
+
+   /*
+    * constructor for empty subset
+    */
+   public SubsetV3() {
+      this.universe = new Universe();
+      this.stride = 1;
+      this.words = new long[1];
+      this.hashes = new long[1];
+      this.count = 1;
+      this.sum = 0;
+   }
+
+   /*
+    * constructor for subset with only one integer
+    */
+   public SubsetV3(long value) {
+      this();
+      int index = this.universe.indexOf(value);
+      this.words[0] = 1L << index;
+      this.hashes[0] = Hashing.mix(value);
+      this.sum = value;
+   }
+
+   /*
+    * constructor for subset from an existing subset and a new integer
+    */
+   public SubsetV3(SubsetV3 subset, long value) throws IllegalArgumentException {
+      if (subset == null)
+         throw new IllegalArgumentException("Subset cannot be null; use the other constructor");
+      this.universe = subset.universe;
+      int index = this.universe.indexOf(value);
+      int word = index >>> 6;
+      long bit = 1L << index;
+      this.stride = Math.max(subset.stride, word + 1);
+      this.count = subset.count;
+      this.words = new long[this.count * this.stride];
+      this.hashes = new long[this.count];
+      long h = Hashing.mix(value);
+      for (int b = 0; b < this.count; b++) {
+         int from = b * subset.stride;
+         if (word < subset.stride && (subset.words[from + word] & bit) != 0)
+            throw new IllegalArgumentException("Subset already contains the new value");
+         System.arraycopy(subset.words, from, this.words, b * this.stride, subset.stride);
+         this.words[b * this.stride + word] |= bit;
+         this.hashes[b] = subset.hashes[b] + h;
+      }
+      this.sum = subset.sum + value;
+   }
+
+   /*
+    * getter for the cardinality of this Subset (number of encapsulated sets)
+    */
+   public int getCardinality() {
+      return this.count;
+   }
+
+   /*
+    * getter for the sum of the subsets
+    */
+   public long getSum() {
+      return this.sum;
+   }
+
+   /*
+    * cloning another subset so that this will correspond to it
+    *
+    * @param other the subset to clone
+    *
+    * @throws IllegalArgumentException if the subset is null
+    */
+   @Override
+   public void clone(Subset other) throws IllegalArgumentException {
+      if (other instanceof SubsetV3) {
+         this.clone((SubsetV3) other);
+      } else {
+         throw new IllegalArgumentException("Other subset cannot be cloned");
+      }
+   }
+
+   public void clone(SubsetV3 other) throws IllegalArgumentException {
+      if (other == null)
+         throw new IllegalArgumentException("Other subset cannot be null");
+      this.universe = other.universe;
+      this.stride = other.stride;
+      this.count = other.count;
+      this.sum = other.sum;
+      this.words = Arrays.copyOf(other.words, other.count * other.stride);
+      this.hashes = Arrays.copyOf(other.hashes, other.count);
+      this.table = null;
+   }
+
+   /*
+    * encapsulating another subset in this (the sum must correspond to this.sum)
+    *
+    * @param other the subset to encapsulate
+    *
+    * @throws IllegalArgumentException if the subset is null or the sum does not
+    * correspond
+    */
+   @Override
+   public void encapsulate(Subset other) throws IllegalArgumentException {
+      if (other instanceof SubsetV3) {
+         this.encapsulate((SubsetV3) other);
+      } else {
+         throw new IllegalArgumentException("Other subset cannot be encapsulated");
+      }
+   }
+
+   public void encapsulate(SubsetV3 other) throws IllegalArgumentException {
+      this.encapsulate(other, Integer.MAX_VALUE);
+   }
+
+   /*
+    * encapsulating another subset in this, keeping at most limit sets
+    *
+    * @param other the subset to encapsulate
+    *
+    * @param limit the maximum number of sets
+    *
+    * @throws IllegalArgumentException if the subset is null
+    */
+   @Override
+   public void encapsulate(Subset other, int limit) throws IllegalArgumentException {
+      if (other instanceof SubsetV3) {
+         this.encapsulate((SubsetV3) other, limit);
+      } else {
+         throw new IllegalArgumentException("Other subset cannot be encapsulated");
+      }
+   }
+
+   public void encapsulate(SubsetV3 other, int limit) throws IllegalArgumentException {
+      if (other == null)
+         throw new IllegalArgumentException("Cannot encapsulate null subset");
+      if (other == this)
+         return;
+      SubsetV3 source = other.universe == this.universe ? other : other.remap(this.universe);
+      if (source.stride > this.stride)
+         this.restride(source.stride);
+      this.ensureTable(this.count + source.count);
+      long[] block = new long[this.stride];
+      for (int b = 0; b < source.count && this.count < limit; b++) {
+         Arrays.fill(block, 0L);
+         System.arraycopy(source.words, b * source.stride, block, 0, source.stride);
+         if (this.find(block, source.hashes[b]) < 0)
+            this.append(block, source.hashes[b]);
+      }
+   }
+
+   /*
+    * verifying whether this.sum satisfies some given bounds
+    *
+    * @param lb lower bound
+    *
+    * @param ub upper bound
+    *
+    * @return true if this.sum satisfies the bounds, false otherwise
+    */
+   public boolean satisfiesBounds(long lb, long ub) {
+      return lb <= this.sum && this.sum <= ub;
+   }
+
+   /*
+    * checking if this subset is equal to another subset
+    *
+    * @param o the subset to compare
+    *
+    * @return true if this subset is equal to o, false otherwise
+    */
+   @Override
+   public boolean equals(Object o) {
+      if (o == null)
+         return false;
+      boolean isSubset = (o instanceof SubsetV3);
+      if (!isSubset)
+         return false;
+      SubsetV3 subset = (SubsetV3) o;
+      if (this.sum != subset.sum)
+         return false;
+      if (this.count != subset.count)
+         return false;
+      return this.contains(subset);
+   }
+
+   /*
+    * computing the hash code of this subset (independent of the universe)
+    *
+    * @return the hash code
+    */
+   @Override
+   public int hashCode() {
+      long hash = this.sum;
+      for (int b = 0; b < this.count; b++)
+         hash = hash + this.hashes[b];
+      return (int) (hash ^ (hash >>> 32));
+   }
+
+   /*
+    * visiting the subsets of integers one at a time
+    *
+    * @param visitor the visitor
+    */
+   @Override
+   public void forEachSolution(SolutionVisitor visitor) {
+      long[] buffer = new long[this.stride << 6];
+      for (int b = 0; b < this.count; b++) {
+         int length = 0;
+         for (int w = 0; w < this.stride; w++) {
+            long bits = this.words[b * this.stride + w];
+            while (bits != 0) {
+               buffer[length++] = this.universe.valueAt((w << 6) + Long.numberOfTrailingZeros(bits));
+               bits &= bits - 1;
+            }
+         }
+         visitor.visit(buffer, length);
+      }
+   }
+
+   /*
+    * returning a string representation of this subset (see SubsetText)
+    *
+    * @return the string representation
+    */
+   @Override
+   public String toString() {
+      return SubsetText.toString(this);
+   }
+
+   /*
+    * returning a string representation of this subset in Julia style
+    *
+    * @return the string representation
+    */
+   public String show() {
+      String s = "Subset(" + this.count + " set";
+      if (this.count > 1)
+         s = s + "s";
+      return s + " with sum " + this.sum + ")";
+   }
+
+   /**
+    * Vérifie si ce sous-ensemble contient tous les ensembles d'un autre, sans
+    * modifier ni l'un ni l'autre (equals s'appuie dessus)
+    */
+   public boolean contains(SubsetV3 other) {
+      if (other == null)
+         return false;
+      SubsetV3 source = other.universe == this.universe ? other : other.remap(this.universe);
+      int[] table = this.table != null ? this.table : this.buildTable(this.count);
+      for (int b = 0; b < source.count; b++) {
+         if (this.lookup(table, source.words, b * source.stride, source.stride, source.hashes[b]) < 0)
+            return false;
+      }
+      return true;
+   }
+
+   /**
+    * Retourne un ensemble contenant toutes les valeurs uniques de ce sous-ensemble
+    *
+    * @return l'ensemble des valeurs
+    */
+   public Set<Long> getValues() {
+      long[] union = new long[this.stride];
+      for (int b = 0; b < this.count; b++)
+         for (int w = 0; w < this.stride; w++)
+            union[w] |= this.words[b * this.stride + w];
+      Set<Long> result = new HashSet<>();
+      for (int w = 0; w < this.stride; w++) {
+         long bits = union[w];
+         while (bits != 0) {
+            result.add(this.universe.valueAt((w << 6) + Long.numberOfTrailingZeros(bits)));
+            bits &= bits - 1;
+         }
+      }
+      return result;
+   }
+
+   /*
+    * copy of this subset expressed on another universe
+    */
+   private SubsetV3 remap(Universe target) {
+      int[] indices = new int[this.stride << 6];
+      int maxIndex = 0;
+      for (int b = 0; b < this.count; b++) {
+         for (int w = 0; w < this.stride; w++) {
+            long bits = this.words[b * this.stride + w];
+            while (bits != 0) {
+               int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+               if (indices[i] == 0)
+                  indices[i] = target.indexOf(this.universe.valueAt(i)) + 1;
+               maxIndex = Math.max(maxIndex, indices[i] - 1);
+               bits &= bits - 1;
+            }
+         }
+      }
+      SubsetV3 copy = new SubsetV3(target, (maxIndex >>> 6) + 1, this.count, this.sum);
+      for (int b = 0; b < this.count; b++) {
+         for (int w = 0; w < this.stride; w++) {
+            long bits = this.words[b * this.stride + w];
+            while (bits != 0) {
+               int j = indices[(w << 6) + Long.numberOfTrailingZeros(bits)] - 1;
+               copy.words[b * copy.stride + (j >>> 6)] |= 1L << j;
+               bits &= bits - 1;
+            }
+         }
+      }
+      System.arraycopy(this.hashes, 0, copy.hashes, 0, this.count);
+      return copy;
+   }
+
+   private SubsetV3(Universe universe, int stride, int count, long sum) {
+      this.universe = universe;
+      this.stride = stride;
+      this.count = count;
+      this.sum = sum;
+      this.words = new long[count * stride];
+      this.hashes = new long[count];
+   }
+
+   private void restride(int stride) {
+      long[] words = new long[Math.max(1, this.words.length / this.stride) * stride];
+      for (int b = 0; b < this.count; b++)
+         System.arraycopy(this.words, b * this.stride, words, b * stride, this.stride);
+      this.words = words;
+      this.stride = stride;
+   }
+
+   private void append(long[] block, long hash) {
+      if ((this.count + 1) * this.stride > this.words.length)
+         this.words = Arrays.copyOf(this.words, Math.max(2 * this.words.length, (this.count + 1) * this.stride));
+      if (this.count == this.hashes.length)
+         this.hashes = Arrays.copyOf(this.hashes, Math.max(2 * this.count, 1));
+      System.arraycopy(block, 0, this.words, this.count * this.stride, this.stride);
+      this.hashes[this.count] = hash;
+      this.count++;
+      this.ensureTable(this.count);
+      this.insert(this.table, this.count - 1);
+   }
+
+   /*
+    * index of a block equal to the given one, or -1
+    */
+   private int find(long[] block, long hash) {
+      return this.lookup(this.table, block, 0, this.stride, hash);
+   }
+
+   /*
+    * index of a block equal to words[from, from + stride), or -1; strides may
+    * differ, missing words count as zero
+    */
+   private int lookup(int[] table, long[] words, int from, int stride, long hash) {
+      for (int w = this.stride; w < stride; w++)
+         if (words[from + w] != 0)
+            return -1;
+      int common = Math.min(this.stride, stride);
+      int mask = table.length - 1;
+      for (int slot = spread(hash) & mask;; slot = (slot + 1) & mask) {
+         int b = table[slot] - 1;
+         if (b < 0)
+            return -1;
+         if (this.hashes[b] == hash
+               && Arrays.equals(this.words, b * this.stride, b * this.stride + common, words, from, from + common)
+               && this.zeroFrom(b, common))
+            return b;
+      }
+   }
+
+   /*
+    * true if the words of block b from index w on are all zero
+    */
+   private boolean zeroFrom(int b, int w) {
+      for (; w < this.stride; w++)
+         if (this.words[b * this.stride + w] != 0)
+            return false;
+      return true;
+   }
+
+   private void insert(int[] table, int b) {
+      int mask = table.length - 1;
+      int slot = spread(this.hashes[b]) & mask;
+      while (table[slot] != 0)
+         slot = (slot + 1) & mask;
+      table[slot] = b + 1;
+   }
+
+   /*
+    * makes sure the dedup table exists and can hold `capacity` blocks at load
+    * factor 1/2
+    */
+   private void ensureTable(int capacity) {
+      if (this.table != null && 2 * capacity <= this.table.length)
+         return;
+      this.table = this.buildTable(capacity);
+   }
+
+   /*
+    * dedup table of the current blocks, sized for `capacity` blocks
+    */
+   private int[] buildTable(int capacity) {
+      int size = Integer.highestOneBit(Math.max(4, 4 * capacity - 1)) << 1;
+      int[] table = new int[size];
+      for (int b = 0; b < this.count; b++)
+         this.insert(table, b);
+      return table;
+   }
+
+   private static int spread(long hash) {
+      return (int) (hash ^ (hash >>> 32));
+   }
+
+   /**
+    * Correspondance valeur <-> indice de bit, partagée par tous les
+    * sous-ensembles dérivés d'une même racine (thread-safe).
+    */
+   static final class Universe {
+      private long[] values = new long[64];
+      private int[] slots = new int[128]; // index + 1, 0 = empty
+      private int size;
+
+      synchronized int indexOf(long value) {
+         int mask = this.slots.length - 1;
+         int slot = spread(Hashing.mix(value)) & mask;
+         while (this.slots[slot] != 0) {
+            int i = this.slots[slot] - 1;
+            if (this.values[i] == value)
+               return i;
+            slot = (slot + 1) & mask;
+         }
+         if (this.size == this.values.length)
+            this.values = Arrays.copyOf(this.values, 2 * this.size);
+         this.values[this.size] = value;
+         this.slots[slot] = this.size + 1;
+         this.size++;
+         if (2 * this.size > this.slots.length)
+            this.rehash();
+         return this.size - 1;
+      }
+
+      synchronized long valueAt(int index) {
+         return this.values[index];
+      }
+
+      private void rehash() {
+         this.slots = new int[2 * this.slots.length];
+         int mask = this.slots.length - 1;
+         for (int i = 0; i < this.size; i++) {
+            int slot = spread(Hashing.mix(this.values[i])) & mask;
+            while (this.slots[slot] != 0)
+               slot = (slot + 1) & mask;
+            this.slots[slot] = i + 1;
+         }
+      }
+   }
+}
@@ -0,0 +1,331 @@
+package fr.ssp.impl;
+
+/* Subset in Java
+ *
+ * for an object-oriented approach to the SSP
+ *
+ * AM
+ */
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import fr.ssp.api.SolutionVisitor;
+import fr.ssp.api.Subset;
+
+/**
+ * SubsetV4 is an implementation of the Subset interface with the same
+ * semantics as SubsetV1 (a set of sets of integers), whose sets are
+ * persistent.
+ *
+ * Each set is an immutable list of values: extending it by a value only
+ * allocates one cell pointing to the original list, which is shared and never
+ * copied. Each cell caches the size, a 64-bit hash and a 64-bit mask of the
+ * values it contains, so that hashing is O(1) and comparisons only look at
+ * the values when the hashes match. The duplicate check of an extension is
+ * O(1) only while the mask rejects the value (see Solution#contains): past a
+ * few dozen values per set the mask fills up and the check becomes a walk of
+ * the list, O(size).
+ */
+public class SubsetV4 implements Subset {
+
+   /*
+    * attributes
+    */
+   private Set<Solution> set; // set of persistent sets of integers
+   private long sum; // sum of these integers
+   private int hash; // sum of the hashes of the sets
+
+   /*
+    * constructor for empty subset
+    */
+   public SubsetV4() {
+      this.set = new HashSet<Solution>();
+      this.sum = 0;
+      this.add(Solution.EMPTY);
+   }
+
+   /*
+    * constructor for subset with only one integer
+    */
+   public SubsetV4(long value) {
+      this.set = new HashSet<Solution>();
+      this.sum = value;
+      this.add(new Solution(value, Solution.EMPTY));
+   }
+
+   /*
+    * constructor for subset from an existing subset and a new integer: every
+    * set of subset is extended by one cell, in O(1)
+    *
+    * @throws IllegalArgumentException if the subset is null or one of its sets
+    * already contains the value
+    */
+   public SubsetV4(SubsetV4 subset, long value) throws IllegalArgumentException {
+      if (subset == null)
+         throw new IllegalArgumentException("Subset cannot be null; use the other constructor");
+      this.set = new HashSet<Solution>(2 * subset.set.size());
+      this.sum = subset.sum + value;
+      for (Solution sub : subset.set) {
+         if (sub.contains(value))
+            throw new IllegalArgumentException("Subset already contains the new value");
+         this.add(new Solution(value, sub));
+      }
+   }
+
+   private boolean add(Solution solution) {
+      if (!this.set.add(solution))
+         return false;
+      this.hash += solution.hashCode();
+      return true;
+   }
+
+   /*
+    * getter for the cardinality of this Subset (number of encapsulated sets)
+    */
+   public int getCardinality() {
+      return this.set.size();
+   }
+
+   /*
+    * getter for the sum of the subsets
+    */
+   public long getSum() {
+      return this.sum;
+   }
+
+   /*
+    * cloning another subset so that this will correspond to it (the sets are
+    * immutable, only references are copied)
+    *
+    * @param other the subset to clone
+    *
+    * @throws IllegalArgumentException if the subset is null
+    */
+   @Override
+   public void clone(Subset other) throws IllegalArgumentException {
+      if (other instanceof SubsetV4) {
+         this.clone((SubsetV4) other);
+      } else {
+         throw new IllegalArgumentException("Other subset cannot be cloned");
+      }
+   }
+
+   public void clone(SubsetV4 other) throws IllegalArgumentException {
+      if (other == null)
+         throw new IllegalArgumentException("Other subset cannot be null");
+      this.sum = other.sum;
+      this.set = new HashSet<Solution>(other.set);
+      this.hash = other.hash;
+   }
+
+   /*
+    * encapsulating another subset in this (the sum must correspond to this.sum)
+    *
+    * @param other the subset to encapsulate
+    *
+    * @throws IllegalArgumentException if the subset is null
+    */
+   @Override
+   public void encapsulate(Subset other) throws IllegalArgumentException {
+      this.encapsulate(other, Integer.MAX_VALUE);
+   }
+
+   /*
+    * encapsulating another subset in this, keeping at most limit sets
+    *
+    * @param other the subset to encapsulate
+    *
+    * @param limit the maximum number of sets
+    *
+    * @throws IllegalArgumentException if the subset is null
+    */
+   @Override
+   public void encapsulate(Subset other, int limit) throws IllegalArgumentException {
+      if (!(other instanceof SubsetV4))
+         throw new IllegalArgumentException("Other subset cannot be encapsulated");
+      Iterator<Solution> it = ((SubsetV4) other).set.iterator();
+      while (this.set.size() < limit && it.hasNext())
+         this.add(it.next());
+   }
+
+   /*
+    * verifying whether this.sum satisfies some given bounds
+    *
+    * @param lb lower bound
+    *
+    * @param ub upper bound
+    *
+    * @return true if this.sum satisfies the bounds, false otherwise
+    */
+   public boolean satisfiesBounds(long lb, long ub) {
+      return lb <= this.sum && this.sum <= ub;
+   }
+
+   /*
+    * visiting the subsets of integers one at a time (values from the last
+    * added to the first)
+    *
+    * @param visitor the visitor
+    */
+   @Override
+   public void forEachSolution(SolutionVisitor visitor) {
+      long[] buffer = new long[8];
+      for (Solution sub : this.set) {
+         if (sub.size > buffer.length)
+            buffer = new long[Math.max(sub.size, 2 * buffer.length)];
+         int length = 0;
+         for (Solution cell = sub; cell.size > 0; cell = cell.rest)
+            buffer[length++] = cell.value;
+         visitor.visit(buffer, length);
+      }
+   }
+
+   /*
+    * checking if this subset is equal to another subset
+    *
+    * @param o the subset to compare
+    *
+    * @return true if this subset is equal to o, false otherwise
+    */
+   @Override
+   public boolean equals(Object o) {
+      if (!(o instanceof SubsetV4))
+         return false;
+      SubsetV4 subset = (SubsetV4) o;
+      return this.sum == subset.sum && this.hash == subset.hash && this.set.equals(subset.set);
+   }
+
+   /*
+    * computing the hash code of this subset (maintained incrementally)
+    *
+    * @return the hash code
+    */
+   @Override
+   public int hashCode() {
+      return (int) this.sum + this.hash;
+   }
+
+   /*
+    * returning a string representation of this subset (see SubsetText)
+    *
+    * @return the string representation
+    */
+   @Override
+   public String toString() {
+      return SubsetText.toString(this);
+   }
+
+   /*
+    * returning a string representation of this subset in Julia style
+    *
+    * @return the string representation
+    */
+   public String show() {
+      String s = "Subset(" + this.set.size() + " set";
+      if (this.set.size() > 1)
+         s = s + "s";
+      return s + " with sum " + this.sum + ")";
+   }
+
+   /**
+    * Vérifie si ce sous-ensemble contient tous les ensembles d'un autre
+    */
+   public boolean contains(SubsetV4 other) {
+      if (other == null)
+         return false;
+      return this.set.containsAll(other.set);
+   }
+
+   /**
+    * Retourne un ensemble contenant toutes les valeurs uniques de ce sous-ensemble
+    *
+    * @return l'ensemble des valeurs
+    */
+   public Set<Long> getValues() {
+      Set<Long> result = new HashSet<>();
+      for (Solution sub : this.set) {
+         for (Solution cell = sub; cell.size > 0; cell = cell.rest)
+            result.add(cell.value);
+      }
+      return result;
+   }
+
+   /*
+    * persistent set of integers: a cell holding the last added value and the
+    * set it extends, with the size, hash and mask of the whole set
+    */
+   private static final class Solution {
+      static final Solution EMPTY = new Solution();
+
+      private final long value;
+      private final Solution rest;
+      private final int size;
+      private final long hash; // sum of the mixed values (order-independent)
+      private final long mask; // one bit per value
+
+      private Solution() {
+         this.value = 0;
+         this.rest = null;
+         this.size = 0;
+         this.hash = 0;
+         this.mask = 0;
+      }
+
+      private Solution(long value, Solution rest) {
+         long mixed = Hashing.mix(value);
+         this.value = value;
+         this.rest = rest;
+         this.size = rest.size + 1;
+         this.hash = rest.hash + mixed;
+         this.mask = rest.mask | (1L << (mixed >>> 58));
+      }
+
+      /*
+       * membership test: O(1) when the value's bit is not in the mask,
+       * otherwise a walk of the list, O(size). An absent value passes the mask
+       * with probability 1 - (63/64)^size: about 15% for 10 values, 47% for
+       * 40 and 79% for 100, so large sets mostly pay the walk. A persistent
+       * hash trie would bound it by O(log size), but each extension would
+       * then allocate O(log size) nodes instead of one cell.
+       */
+      boolean contains(long value) {
+         if ((this.mask & (1L << (Hashing.mix(value) >>> 58))) == 0)
+            return false;
+         for (Solution cell = this; cell.size > 0; cell = cell.rest) {
+            if (cell.value == value)
+               return true;
+         }
+         return false;
+      }
+
+      long[] toSortedArray() {
+         long[] values = new long[this.size];
+         int k = 0;
+         for (Solution cell = this; cell.size > 0; cell = cell.rest)
+            values[k++] = cell.value;
+         Arrays.sort(values);
+         return values;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (o == this)
+            return true;
+         if (!(o instanceof Solution))
+            return false;
+         Solution other = (Solution) o;
+         if (this.size != other.size || this.hash != other.hash || this.mask != other.mask)
+            return false;
+         if (this.value == other.value && this.rest == other.rest)
+            return true; // same extension of the same shared set
+         return Arrays.equals(this.toSortedArray(), other.toSortedArray());
+      }
+
+      @Override
+      public int hashCode() {
+         return Long.hashCode(this.hash);
+      }
+   }
+}
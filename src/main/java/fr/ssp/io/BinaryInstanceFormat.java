@@ -0,0 +1,47 @@
+package fr.ssp.io;
+
+/**
+ * Format binaire des instances (tous les entiers en petit-boutiste) :
+ *
+ * <pre>
+ * octets 0-3   "SSPB"
+ * octet  4     version (1)
+ * octet  5     largeur des valeurs en octets (1, 2, 4 ou 8)
+ * octets 6-7   réservés (0)
+ * octets 8-11  n (int)
+ * octets 12-19 cible (long)
+ * octets 20-   n valeurs signées de largeur fixe
+ * </pre>
+ */
+final class BinaryInstanceFormat {
+
+  static final byte[] MAGIC = { 'S', 'S', 'P', 'B' };
+  static final byte VERSION = 1;
+  static final int HEADER_SIZE = 20;
+
+  private BinaryInstanceFormat() {
+  }
+
+  static boolean isValidWidth(int width) {
+    return width == 1 || width == 2 || width == 4 || width == 8;
+  }
+
+  /**
+   * plus petite largeur qui représente toutes les valeurs
+   */
+  static int widthOf(long[] values) {
+    int width = 1;
+    for (long value : values) {
+      while (!fits(value, width))
+        width *= 2;
+    }
+    return width;
+  }
+
+  static boolean fits(long value, int width) {
+    if (width == 8)
+      return true;
+    long bound = 1L << (8 * width - 1);
+    return -bound <= value && value < bound;
+  }
+}
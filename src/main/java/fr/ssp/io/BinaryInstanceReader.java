@@ -0,0 +1,105 @@
+package fr.ssp.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lecture d'une instance au format binaire (voir BinaryInstanceFormat).
+ *
+ * Les valeurs sont lues directement depuis des projections mémoire
+ * (MappedByteBuffer) du fichier dans le tableau long[] final : copie en bloc
+ * quand elles sont sur 8 octets, extension de signe valeur par valeur sinon.
+ */
+public final class BinaryInstanceReader {
+
+  /**
+   * taille d'une projection mémoire (multiple de 8 : aucune valeur n'est coupée)
+   */
+  private static final long CHUNK = 1L << 28;
+
+  private BinaryInstanceReader() {
+  }
+
+  /**
+   * Indique si le fichier commence par l'en-tête du format binaire
+   */
+  public static boolean isBinary(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer magic = ByteBuffer.allocate(BinaryInstanceFormat.MAGIC.length);
+      while (magic.hasRemaining() && channel.read(magic) >= 0)
+        ;
+      return !magic.hasRemaining() && Arrays.equals(magic.array(), BinaryInstanceFormat.MAGIC);
+    }
+  }
+
+  /**
+   * Lit une instance au format binaire
+   *
+   * @param path le fichier
+   * @return l'instance lue
+   * @throws IOException             si le fichier ne peut pas être lu
+   * @throws InstanceFormatException si l'en-tête ou la taille sont invalides
+   */
+  public static Instance read(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+          Math.min(fileSize, BinaryInstanceFormat.HEADER_SIZE)).order(ByteOrder.LITTLE_ENDIAN);
+      for (int k = 0; k < BinaryInstanceFormat.MAGIC.length; k++) {
+        if (!header.hasRemaining() || header.get() != BinaryInstanceFormat.MAGIC[k])
+          throw new InstanceFormatException("not a binary SSP instance", k);
+      }
+      if (fileSize < BinaryInstanceFormat.HEADER_SIZE)
+        throw new InstanceFormatException("truncated header", fileSize);
+      int version = header.get();
+      if (version != BinaryInstanceFormat.VERSION)
+        throw new InstanceFormatException("unsupported version " + version, 4);
+      int width = header.get();
+      if (!BinaryInstanceFormat.isValidWidth(width))
+        throw new InstanceFormatException("invalid value width " + width, 5);
+      header.getShort();
+      int size = header.getInt();
+      if (size <= 0)
+        throw new InstanceFormatException("invalid size " + size, 8);
+      long target = header.getLong();
+      long expected = BinaryInstanceFormat.HEADER_SIZE + (long) size * width;
+      if (fileSize < expected)
+        throw new InstanceFormatException("expected " + size + " values of " + width + " bytes, file is truncated",
+            fileSize);
+
+      long[] values = new long[size];
+      int i = 0;
+      for (long position = BinaryInstanceFormat.HEADER_SIZE; i < size; position += CHUNK) {
+        long length = Math.min(CHUNK, expected - position);
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        int count = (int) (length / width);
+        switch (width) {
+          case 1:
+            for (int k = 0; k < count; k++)
+              values[i++] = mapped.get();
+            break;
+          case 2:
+            for (int k = 0; k < count; k++)
+              values[i++] = mapped.getShort();
+            break;
+          case 4:
+            for (int k = 0; k < count; k++)
+              values[i++] = mapped.getInt();
+            break;
+          default:
+            mapped.asLongBuffer().get(values, i, count);
+            i += count;
+            break;
+        }
+      }
+      return new Instance(target, values);
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package fr.ssp.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Écriture en flux d'une instance au format binaire (voir
+ * BinaryInstanceFormat) : l'en-tête est écrit à l'ouverture, les valeurs une à
+ * une au travers d'un tampon direct, sans jamais tenir l'instance entière en
+ * mémoire.
+ */
+public class BinaryInstanceWriter implements Closeable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private final int size;
+  private final int width;
+  private int written;
+
+  /**
+   * @param path   le fichier (créé ou écrasé)
+   * @param size   le nombre de valeurs qui seront écrites
+   * @param target la cible
+   * @param width  la largeur des valeurs en octets (1, 2, 4 ou 8)
+   */
+  public BinaryInstanceWriter(Path path, int size, long target, int width) throws IOException {
+    if (size <= 0)
+      throw new IllegalArgumentException("SSP size cannot be nonpositive");
+    if (!BinaryInstanceFormat.isValidWidth(width))
+      throw new IllegalArgumentException("Value width must be 1, 2, 4 or 8 bytes");
+    this.size = size;
+    this.width = width;
+    this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    this.buffer.put(BinaryInstanceFormat.MAGIC);
+    this.buffer.put(BinaryInstanceFormat.VERSION);
+    this.buffer.put((byte) width);
+    this.buffer.putShort((short) 0);
+    this.buffer.putInt(size);
+    this.buffer.putLong(target);
+  }
+
+  /**
+   * Écrit une instance entière, avec la plus petite largeur possible
+   */
+  public static void write(Path path, Instance instance) throws IOException {
+    long[] values = instance.getValues();
+    try (BinaryInstanceWriter writer = new BinaryInstanceWriter(path, values.length, instance.getTarget(),
+        BinaryInstanceFormat.widthOf(values))) {
+      for (long value : values)
+        writer.write(value);
+    }
+  }
+
+  /**
+   * Écrit la valeur suivante
+   *
+   * @throws IllegalArgumentException si elle ne tient pas dans la largeur
+   * @throws IllegalStateException    si toutes les valeurs ont déjà été écrites
+   */
+  public void write(long value) throws IOException {
+    if (this.written == this.size)
+      throw new IllegalStateException("All " + this.size + " values have already been written");
+    if (!BinaryInstanceFormat.fits(value, this.width))
+      throw new IllegalArgumentException("Value " + value + " does not fit in " + this.width + " bytes");
+    if (this.buffer.remaining() < this.width)
+      flush();
+    switch (this.width) {
+      case 1:
+        this.buffer.put((byte) value);
+        break;
+      case 2:
+        this.buffer.putShort((short) value);
+        break;
+      case 4:
+        this.buffer.putInt((int) value);
+        break;
+      default:
+        this.buffer.putLong(value);
+        break;
+    }
+    this.written++;
+  }
+
+  private void flush() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining())
+      this.channel.write(this.buffer);
+    this.buffer.clear();
+  }
+
+  /**
+   * Vide le tampon et ferme le fichier
+   *
+   * @throws IllegalStateException si moins de valeurs que prévu ont été écrites
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      this.channel.close();
+    }
+    if (this.written != this.size)
+      throw new IllegalStateException("Expected " + this.size + " values, wrote " + this.written);
+  }
+}
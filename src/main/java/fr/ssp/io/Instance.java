@@ -0,0 +1,33 @@
+package fr.ssp.io;
+
+/**
+ * Instance lue depuis un fichier : la cible et les valeurs.
+ */
+public final class Instance {
+
+  private final long target;
+  private final long[] values;
+
+  public Instance(long target, long[] values) {
+    if (values == null)
+      throw new IllegalArgumentException("Values array cannot be null");
+    this.target = target;
+    this.values = values;
+  }
+
+  public long getTarget() {
+    return this.target;
+  }
+
+  /**
+   * Les valeurs lues (le tableau n'est pas copié)
+   */
+  public long[] getValues() {
+    return this.values;
+  }
+
+  @Override
+  public String toString() {
+    return "Instance(n = " + this.values.length + "; target = " + this.target + ")";
+  }
+}
@@ -0,0 +1,52 @@
+package fr.ssp.io;
+
+/**
+ * Erreur de format dans un fichier d'instance, avec sa position.
+ */
+public class InstanceFormatException extends IllegalArgumentException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final long line;
+  private final long column;
+  private final long offset;
+
+  /**
+   * @param message la description de l'erreur
+   * @param line    la ligne (à partir de 1)
+   * @param column  la colonne en octets (à partir de 1)
+   * @param offset  la position en octets depuis le début du fichier
+   */
+  public InstanceFormatException(String message, long line, long column, long offset) {
+    super("Error while parsing input file: " + message + " at line " + line + ", column " + column
+        + " (byte offset " + offset + ")");
+    this.line = line;
+    this.column = column;
+    this.offset = offset;
+  }
+
+  /**
+   * Erreur dans un fichier binaire (sans ligne ni colonne, qui valent 0)
+   *
+   * @param message la description de l'erreur
+   * @param offset  la position en octets depuis le début du fichier
+   */
+  public InstanceFormatException(String message, long offset) {
+    super("Error while parsing input file: " + message + " at byte offset " + offset);
+    this.line = 0;
+    this.column = 0;
+    this.offset = offset;
+  }
+
+  public long getLine() {
+    return this.line;
+  }
+
+  public long getColumn() {
+    return this.column;
+  }
+
+  public long getOffset() {
+    return this.offset;
+  }
+}
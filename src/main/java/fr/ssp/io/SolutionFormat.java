@@ -0,0 +1,102 @@
+package fr.ssp.io;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetText;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Formats d'écriture des solutions d'un sous-ensemble.
+ *
+ * Les solutions sont parcourues une à une par forEachSolution et écrites
+ * directement dans un Appendable (Writer, StringBuilder...) : le temps est
+ * linéaire en la taille de la sortie et la mémoire ne dépend pas du nombre de
+ * solutions.
+ */
+public enum SolutionFormat {
+
+  /**
+   * "sum = " puis une solution par ligne : " (a,b,c)" (le format de toString,
+   * voir SubsetText)
+   */
+  TEXT {
+    @Override
+    void begin(Subset solutions, Appendable out) throws IOException {
+      SubsetText.appendHeader(solutions, out);
+    }
+
+    @Override
+    void solution(Subset solutions, long[] values, int length, Appendable out) throws IOException {
+      SubsetText.appendSolution(values, length, out);
+    }
+  },
+
+  /**
+   * une solution par ligne, valeurs séparées par des virgules
+   */
+  CSV {
+    @Override
+    void solution(Subset solutions, long[] values, int length, Appendable out) throws IOException {
+      SubsetText.appendValues(values, length, out);
+      out.append('\n');
+    }
+  },
+
+  /**
+   * une solution par ligne en JSON : {"sum":10,"values":[1,2,7]}
+   */
+  NDJSON {
+    @Override
+    void solution(Subset solutions, long[] values, int length, Appendable out) throws IOException {
+      out.append("{\"sum\":").append(Long.toString(solutions.getSum())).append(",\"values\":[");
+      SubsetText.appendValues(values, length, out);
+      out.append("]}\n");
+    }
+  };
+
+  void begin(Subset solutions, Appendable out) throws IOException {
+  }
+
+  abstract void solution(Subset solutions, long[] values, int length, Appendable out) throws IOException;
+
+  /**
+   * Écrit les solutions dans out
+   *
+   * @param solutions le sous-ensemble
+   * @param out       la destination
+   * @throws IOException si l'écriture échoue
+   */
+  public void write(Subset solutions, Appendable out) throws IOException {
+    if (solutions == null)
+      throw new IllegalArgumentException("Subset cannot be null");
+    begin(solutions, out);
+    try {
+      solutions.forEachSolution((values, length) -> {
+        try {
+          solution(solutions, values, length, out);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Écrit les solutions dans une chaîne
+   *
+   * @param solutions le sous-ensemble
+   * @return la chaîne
+   */
+  public String format(Subset solutions) {
+    StringBuilder s = new StringBuilder();
+    try {
+      write(solutions, s);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // impossible avec un StringBuilder
+    }
+    return s.toString();
+  }
+}
@@ -0,0 +1,176 @@
+package fr.ssp.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lecture du format texte des instances : la taille n, la cible, puis les n
+ * valeurs, séparées par des blancs (les éléments suivants sont ignorés).
+ *
+ * Le fichier est projeté en mémoire par tranches de CHUNK octets via un
+ * FileChannel et les entiers sont décodés à la main octet par octet, sans
+ * expression régulière ni objet intermédiaire : la lecture va à la vitesse du
+ * disque (ou du cache de pages). Les erreurs donnent la ligne, la colonne et
+ * la position en octets du lexème fautif.
+ */
+public final class TextInstanceReader {
+
+  /**
+   * taille d'une projection mémoire (un MappedByteBuffer est limité à 2 Go)
+   */
+  private static final long CHUNK = 1L << 28;
+
+  /**
+   * taille des blocs copiés depuis la projection avant décodage
+   */
+  private static final int BLOCK = 1 << 16;
+
+  private final byte[] block = new byte[BLOCK];
+
+  // position courante
+  private long offset;
+  private long line = 1;
+  private long lineStart;
+
+  // lexème en cours
+  private boolean inToken;
+  private boolean negative;
+  private int digits;
+  private long accumulator; // valeur négée (permet Long.MIN_VALUE)
+  private long tokenOffset;
+  private long tokenLine;
+  private long tokenColumn;
+
+  // résultat
+  private final long fileSize;
+  private int tokens;
+  private int size = -1;
+  private long target;
+  private long[] values;
+
+  private TextInstanceReader(long fileSize) {
+    this.fileSize = fileSize;
+  }
+
+  /**
+   * Lit une instance au format texte
+   *
+   * @param path le fichier
+   * @return l'instance lue
+   * @throws IOException            si le fichier ne peut pas être lu
+   * @throws InstanceFormatException si le contenu n'est pas une instance valide
+   */
+  public static Instance read(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      TextInstanceReader reader = new TextInstanceReader(size);
+      for (long position = 0; position < size && !reader.done(); position += CHUNK) {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK, size - position));
+        while (buffer.hasRemaining() && !reader.done()) {
+          int length = Math.min(BLOCK, buffer.remaining());
+          buffer.get(reader.block, 0, length);
+          reader.parse(length);
+        }
+      }
+      return reader.finish();
+    }
+  }
+
+  private boolean done() {
+    return this.values != null && this.tokens == this.size + 2;
+  }
+
+  private void parse(int length) {
+    byte[] bytes = this.block;
+    for (int k = 0; k < length; k++) {
+      int c = bytes[k];
+      int d = c - '0';
+      if (d >= 0 && d <= 9) {
+        if (!this.inToken)
+          startToken(k, false);
+        appendDigit(d);
+      } else if (c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f' || c == 0x0B) {
+        if (this.inToken) {
+          endToken();
+          if (done())
+            return;
+        }
+        if (c == '\n') {
+          this.line++;
+          this.lineStart = this.offset + k + 1;
+        }
+      } else if ((c == '-' || c == '+') && !this.inToken) {
+        startToken(k, c == '-');
+      } else {
+        throw error("unexpected character " + describe(c), this.offset + k);
+      }
+    }
+    this.offset += length;
+  }
+
+  private void startToken(int k, boolean negative) {
+    this.inToken = true;
+    this.negative = negative;
+    this.digits = 0;
+    this.accumulator = 0;
+    this.tokenOffset = this.offset + k;
+    this.tokenLine = this.line;
+    this.tokenColumn = this.tokenOffset - this.lineStart + 1;
+  }
+
+  private void appendDigit(int d) {
+    long limit = this.negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    if (this.accumulator < limit / 10 || this.accumulator * 10 < limit + d)
+      throw tokenError("number out of range");
+    this.accumulator = this.accumulator * 10 - d;
+    this.digits++;
+  }
+
+  private void endToken() {
+    this.inToken = false;
+    if (this.digits == 0)
+      throw tokenError("sign without digits");
+    long value = this.negative ? this.accumulator : -this.accumulator;
+    if (this.tokens == 0) {
+      // au plus un nombre tous les deux octets
+      if (value <= 0 || value > Integer.MAX_VALUE - 8 || value > (this.fileSize + 1) / 2)
+        throw tokenError("invalid size " + value);
+      this.size = (int) value;
+    } else if (this.tokens == 1) {
+      this.target = value;
+      this.values = new long[this.size];
+    } else {
+      this.values[this.tokens - 2] = value;
+    }
+    this.tokens++;
+  }
+
+  private Instance finish() {
+    if (this.inToken)
+      endToken();
+    if (this.tokens == 0)
+      throw error("missing size", this.offset);
+    if (this.tokens == 1)
+      throw error("missing target", this.offset);
+    if (!done())
+      throw error("expected " + this.size + " values, found " + (this.tokens - 2), this.offset);
+    return new Instance(this.target, this.values);
+  }
+
+  private InstanceFormatException tokenError(String message) {
+    return new InstanceFormatException(message, this.tokenLine, this.tokenColumn, this.tokenOffset);
+  }
+
+  private InstanceFormatException error(String message, long at) {
+    return new InstanceFormatException(message, this.line, at - this.lineStart + 1, at);
+  }
+
+  private static String describe(int c) {
+    if (c >= 0x20 && c < 0x7F)
+      return "'" + (char) c + "'";
+    return String.format("0x%02X", c & 0xFF);
+  }
+}
@@ -0,0 +1,200 @@
+package fr.ssp.solver;
+
+import fr.ssp.api.Subset;
+
+import java.math.BigInteger;
+
+/**
+ * Socle commun des solveurs, sans fabrique de sous-ensembles : instance,
+ * mode, limite, statistiques, écouteur, échéance et annulation. SSPSolver y
+ * ajoute la SubsetFactory ; MultisetBranchAndPruneSolver, qui construit ses
+ * propres MultisetSubset, en hérite directement.
+ */
+public abstract class AbstractSolver {
+
+  /**
+   * nombre d'appels à checkpoint() entre deux consultations de l'horloge
+   * (puissance de 2)
+   */
+  protected static final int CHECK_INTERVAL = 1024;
+
+  protected long target;
+  protected long[] original;
+  protected SearchListener listener; // null : aucune trace
+  protected SolveStats stats = new SolveStats();
+  protected SolveMode mode = SolveMode.ALL;
+  protected int limit = Integer.MAX_VALUE;
+
+  private Deadline deadline = Deadline.NONE;
+  private volatile boolean cancelRequested;
+  private volatile SolveResult.Status interruption; // null tant que la recherche continue
+  private int ticks;
+
+  protected AbstractSolver(long target, long[] original) {
+    this.target = target;
+    this.original = original.clone();
+  }
+
+  /**
+   * Résout l'instance et met à jour les statistiques de résolution
+   * 
+   * @return les solutions trouvées
+   */
+  public Subset solve() {
+    return solve(Deadline.NONE).getSolutions();
+  }
+
+  /**
+   * Résout l'instance en s'arrêtant à l'échéance ou sur demande (cancel() ou
+   * interruption du thread). La recherche vérifie ces conditions toutes les
+   * CHECK_INTERVAL nœuds (recherche arborescente) ou à chaque couche
+   * (programmation dynamique).
+   * 
+   * @param deadline l'échéance (Deadline.NONE pour aucune)
+   * @return le statut et les solutions trouvées jusque-là
+   */
+  public SolveResult solve(Deadline deadline) {
+    if (deadline == null)
+      throw new IllegalArgumentException("Deadline cannot be null");
+    this.deadline = deadline;
+    this.interruption = null;
+    this.ticks = 0;
+    this.stats = new SolveStats();
+    this.stats.start();
+    Subset solutions;
+    try {
+      solutions = search();
+    } finally {
+      this.stats.stop();
+      this.cancelRequested = false;
+    }
+    SolveResult.Status status = this.interruption;
+    return new SolveResult(status == null ? SolveResult.Status.COMPLETE : status, solutions, this.stats);
+  }
+
+  /**
+   * Demande l'arrêt de la résolution en cours (depuis n'importe quel thread) ;
+   * elle retourne alors les solutions trouvées jusque-là, avec le statut
+   * CANCELLED.
+   */
+  public void cancel() {
+    this.cancelRequested = true;
+  }
+
+  /**
+   * La résolution proprement dite, propre à chaque solveur
+   */
+  protected abstract Subset search();
+
+  /**
+   * Compte les solutions sans construire aucun Subset (voir SolutionCounter).
+   * 
+   * Le comptage porte sur toute l'instance : il ignore le mode, la limite et
+   * l'échéance de solve(), et ne touche pas aux statistiques.
+   * 
+   * @return le nombre de sous-ensembles atteignant la cible
+   */
+  public BigInteger count() {
+    return new SolutionCounter(target, original).count();
+  }
+
+  /**
+   * Statistiques de la dernière résolution
+   */
+  public SolveStats getStats() {
+    return this.stats;
+  }
+
+  /**
+   * Choisit entre toutes les solutions et une seule (ALL par défaut)
+   * 
+   * @param mode le mode de résolution
+   */
+  public void setMode(SolveMode mode) {
+    if (mode == null)
+      throw new IllegalArgumentException("Mode cannot be null");
+    this.mode = mode;
+  }
+
+  public SolveMode getMode() {
+    return this.mode;
+  }
+
+  /**
+   * Limite le nombre de solutions collectées : la recherche s'arrête dès que
+   * limit solutions distinctes sont trouvées
+   * 
+   * @param limit le nombre maximal de solutions (strictement positif)
+   */
+  public void setLimit(int limit) {
+    if (limit < 1)
+      throw new IllegalArgumentException("Limit must be positive");
+    this.limit = limit;
+  }
+
+  public int getLimit() {
+    return this.limit;
+  }
+
+  /**
+   * Nombre de solutions à partir duquel la recherche s'arrête (1 en mode FIRST)
+   */
+  protected int quota() {
+    return this.mode == SolveMode.FIRST ? 1 : this.limit;
+  }
+
+  /**
+   * Indique si la recherche peut s'arrêter : le quota de solutions est atteint
+   * pendant cette résolution
+   */
+  protected boolean satisfied() {
+    return this.stats.solutionsFound >= quota();
+  }
+
+  /**
+   * Point de contrôle bon marché, à appeler à chaque nœud : l'échéance et
+   * l'annulation ne sont consultées que tous les CHECK_INTERVAL appels.
+   * 
+   * @return true si la recherche doit s'arrêter
+   */
+  protected boolean checkpoint() {
+    if (this.interruption != null)
+      return true;
+    if ((++this.ticks & (CHECK_INTERVAL - 1)) != 0)
+      return false;
+    return interrupted();
+  }
+
+  /**
+   * Consulte immédiatement l'échéance et l'annulation (à appeler à chaque
+   * couche ou étape coûteuse)
+   * 
+   * @return true si la recherche doit s'arrêter
+   */
+  protected boolean interrupted() {
+    if (this.interruption != null)
+      return true;
+    if (this.cancelRequested || Thread.currentThread().isInterrupted())
+      this.interruption = SolveResult.Status.CANCELLED;
+    else if (this.deadline.isExpired())
+      this.interruption = SolveResult.Status.TIMED_OUT;
+    return this.interruption != null;
+  }
+
+  /**
+   * Attache un écouteur de recherche (null pour le détacher)
+   * 
+   * @param listener l'écouteur appelé à chaque nœud exploré
+   */
+  public void setSearchListener(SearchListener listener) {
+    this.listener = listener;
+  }
+
+  protected long totalSum() {
+    long sum = 0;
+    for (long value : original) {
+      sum += value;
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,169 @@
+package fr.ssp.solver;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+
+/**
+ * Solveur d'atteignabilité par bitset : l'ensemble des sommes atteignables
+ * dans [0, target] est un tableau de mots long[] mis à jour par un décalage-ou
+ * (shift-or) mot à mot pour chaque élément.
+ *
+ * Ne retourne qu'une seule solution (témoin), reconstruite à partir de points
+ * de contrôle pris toutes les ~sqrt(n) couches : la mémoire reste en
+ * O(sqrt(n) * target / 64) mots. Les valeurs doivent être positives ou nulles.
+ */
+public class BitsetSolver extends SSPSolver {
+
+  public BitsetSolver(long target, long[] original, SubsetFactory factory) {
+    super(target, original, factory);
+    for (long value : original) {
+      if (value < 0)
+        throw new IllegalArgumentException("Bitset solver requires nonnegative values");
+    }
+    if (target >= 64L * (Integer.MAX_VALUE - 8))
+      throw new IllegalArgumentException("Target too large for the bitset solver");
+  }
+
+  /**
+   * Retourne un sous-ensemble contenant une seule solution, ou null si la cible
+   * n'est pas atteignable (comme DynamicProgrammingSolver).
+   */
+  @Override
+  protected Subset search() {
+    int[] witness = witness();
+    if (witness == null)
+      return null;
+    Subset result = createSubset();
+    for (int i : witness)
+      result = createSubset(result, original[i]);
+    return result;
+  }
+
+  /**
+   * Indique si la cible est atteignable, sans reconstruire de témoin
+   *
+   * @return true si au moins un sous-ensemble atteint la cible
+   */
+  public boolean isReachable() {
+    if (target < 0)
+      return false;
+    long[] reach = newBitset();
+    for (int i : items()) {
+      if (interrupted())
+        return false;
+      shiftOr(reach, original[i]);
+      if (test(reach, target))
+        return true;
+    }
+    return test(reach, target);
+  }
+
+  /**
+   * Calcule les indices (dans original) d'un sous-ensemble atteignant la cible
+   *
+   * @return les indices d'une solution, ou null si la cible est inatteignable
+   */
+  public int[] witness() {
+    if (target < 0)
+      return null;
+    if (target == 0)
+      return new int[0];
+
+    int[] items = items();
+    int m = items.length;
+    int block = Math.max(1, (int) Math.ceil(Math.sqrt(m)));
+    long[][] checkpoints = new long[(m + block - 1) / block + 1][];
+
+    // passe avant : on s'arrête à la première couche qui atteint la cible
+    long[] reach = newBitset();
+    int last = -1;
+    for (int k = 0; k < m && !interrupted(); k++) {
+      if (k % block == 0)
+        checkpoints[k / block] = reach.clone();
+      shiftOr(reach, original[items[k]]);
+      if (test(reach, target)) {
+        last = k;
+        break;
+      }
+    }
+    if (last < 0)
+      return null;
+
+    // passe arrière : on recalcule les couches de chaque bloc depuis son point
+    // de contrôle, puis on remonte élément par élément
+    int[] chosen = new int[last + 1];
+    int count = 0;
+    long s = target;
+    for (int b = last / block; b >= 0 && s > 0; b--) {
+      int from = b * block;
+      int to = Math.min(last, from + block - 1);
+      long[][] layers = new long[to - from + 1][];
+      layers[0] = checkpoints[b];
+      for (int k = from; k < to; k++) {
+        layers[k - from + 1] = layers[k - from].clone();
+        shiftOr(layers[k - from + 1], original[items[k]]);
+      }
+      for (int k = to; k >= from && s > 0; k--) {
+        if (!test(layers[k - from], s)) {
+          chosen[count++] = items[k];
+          s -= original[items[k]];
+        }
+      }
+      checkpoints[b] = null;
+    }
+
+    int[] witness = new int[count];
+    for (int k = 0; k < count; k++)
+      witness[k] = chosen[count - 1 - k];
+    return witness;
+  }
+
+  /**
+   * indices des éléments utiles : 0 < valeur <= target
+   */
+  private int[] items() {
+    int m = 0;
+    for (long value : original) {
+      if (value > 0 && value <= target)
+        m++;
+    }
+    int[] items = new int[m];
+    m = 0;
+    for (int i = 0; i < original.length; i++) {
+      if (original[i] > 0 && original[i] <= target)
+        items[m++] = i;
+    }
+    return items;
+  }
+
+  private long[] newBitset() {
+    long[] bits = new long[(int) (target >>> 6) + 1];
+    stats.state(bits.length);
+    bits[0] = 1L; // la somme vide
+    return bits;
+  }
+
+  private static boolean test(long[] bits, long s) {
+    return (bits[(int) (s >>> 6)] & (1L << s)) != 0;
+  }
+
+  /**
+   * bits |= bits << value, tronqué à [0, target]
+   */
+  private void shiftOr(long[] bits, long value) {
+    int wordShift = (int) (value >>> 6);
+    int bitShift = (int) (value & 63);
+    if (bitShift == 0) {
+      for (int k = bits.length - 1; k >= wordShift; k--)
+        bits[k] |= bits[k - wordShift];
+    } else {
+      int back = 64 - bitShift;
+      for (int k = bits.length - 1; k > wordShift; k--)
+        bits[k] |= (bits[k - wordShift] << bitShift) | (bits[k - wordShift - 1] >>> back);
+      bits[wordShift] |= bits[0] << bitShift;
+    }
+    int tail = (int) (target & 63);
+    if (tail != 63)
+      bits[bits.length - 1] &= (1L << (tail + 1)) - 1;
+  }
+}
@@ -4,18 +4,39 @@ import fr.ssp.api.Subset;
 import fr.ssp.impl.SubsetFactory;
 import fr.ssp.impl.SubsetV2;
 
+import java.util.Arrays;
+
 public class BranchAndPruneSolver extends SSPSolver {
 
+  private boolean sortedPruning;
+
   public BranchAndPruneSolver(long target, long[] original, SubsetFactory factory) {
     super(target, original, factory);
   }
 
+  /**
+   * Active l'élagage trié : les valeurs sont parcourues par ordre décroissant
+   * et chaque nœud est coupé dès que le reste à atteindre dépasse la somme des
+   * éléments restants ou est plus petit que le plus petit d'entre eux. Sans
+   * effet si une valeur est négative (les bornes ne tiennent plus).
+   * 
+   * @param sortedPruning true pour l'élagage trié, false pour l'ordre d'entrée
+   */
+  public void setSortedPruning(boolean sortedPruning) {
+    this.sortedPruning = sortedPruning;
+  }
+
   @Override
-  public Subset solve() {
+  protected Subset search() {
     Subset solutions = createSubset();
     long total = totalSum();
 
-    bpRec(0, createSubset(), total, solutions);
+    Sorted sorted = this.sortedPruning ? Sorted.of(original) : null;
+    if (sorted != null) {
+      bpSorted(sorted, 0, createSubset(), solutions);
+    } else {
+      bpRec(0, createSubset(), total, solutions);
+    }
 
     // Normaliser le résultat si c'est une instance de SubsetV2
     if (solutions instanceof SubsetV2) {
@@ -26,16 +47,23 @@ public class BranchAndPruneSolver extends SSPSolver {
   }
 
   private void bpRec(int i, Subset partial, long total, Subset solutions) {
-    System.err
-        .println("bpRec index=" + i + ", partial.sum=" + partial.getSum() + ", total=" + total + ", target=" + target);
+    if (satisfied() || checkpoint())
+      return;
+    stats.nodesExpanded++;
+    if (listener != null)
+      listener.nodeEntered(i, partial.getSum(), total);
 
     if (!partial.satisfiesBounds(target - total, target)) {
-      System.err.println("  Élagué par satisfiesBounds");
+      stats.nodesPruned++;
+      if (listener != null)
+        listener.nodePruned(i, partial.getSum(), total);
       return;
     }
 
     if (partial.getSum() == target) {
-      System.err.println("  Solution trouvée! Somme=" + partial.getSum());
+      stats.solutionsFound++;
+      if (listener != null)
+        listener.solutionFound(i, partial);
       if (solutions.getSum() == 0) {
         solutions.clone(partial);
       } else {
@@ -45,16 +73,93 @@ public class BranchAndPruneSolver extends SSPSolver {
     }
 
     if (i == original.length) {
-      System.err.println("  Fin du tableau atteinte");
+      if (listener != null)
+        listener.leafReached(i, partial.getSum());
       return;
     }
 
-    System.err.println("  Exploration sans valeur " + original[i]);
     total -= original[i];
     bpRec(i + 1, partial, total, solutions);
-
-    System.err.println("  Exploration avec valeur " + original[i]);
     bpRec(i + 1, createSubset(partial, original[i]), total, solutions);
   }
 
-}
\ No newline at end of file
+  /**
+   * Parcours des valeurs triées par ordre décroissant : on essaie d'abord
+   * l'élément (s'il tient dans le reste), puis on le saute. Les solutions sont
+   * construites avec les valeurs elles-mêmes et sont donc identiques à celles
+   * de bpRec ; seul l'indice i transmis à l'écouteur est celui de l'ordre trié.
+   */
+  private void bpSorted(Sorted sorted, int i, Subset partial, Subset solutions) {
+    if (satisfied() || checkpoint())
+      return;
+    stats.nodesExpanded++;
+    long sum = partial.getSum();
+    long rest = target - sorted.suffixSums[i];
+    if (listener != null)
+      listener.nodeEntered(i, sum, sorted.suffixSums[i]);
+
+    long residual = target - sum;
+    if (residual == 0) {
+      stats.solutionsFound++;
+      if (listener != null)
+        listener.solutionFound(i, partial);
+      if (solutions.getSum() == 0) {
+        solutions.clone(partial);
+      } else {
+        solutions.encapsulate(partial);
+      }
+      return;
+    }
+
+    // les éléments restants ne suffisent pas, ou sont tous trop grands (en
+    // particulier quand il n'en reste plus)
+    if (sum < rest || residual < 0 || residual < sorted.suffixMins[i]) {
+      stats.nodesPruned++;
+      if (listener != null)
+        listener.nodePruned(i, sum, sorted.suffixSums[i]);
+      return;
+    }
+
+    long value = sorted.values[i];
+    if (value <= residual)
+      bpSorted(sorted, i + 1, createSubset(partial, value), solutions);
+    bpSorted(sorted, i + 1, partial, solutions);
+  }
+
+  /**
+   * valeurs triées par ordre décroissant, sommes et minima des suffixes
+   */
+  private static final class Sorted {
+    final long[] values;
+    final long[] suffixSums; // suffixSums[i] = values[i] + ... + values[n - 1]
+    final long[] suffixMins; // minimum de values[i..n - 1], MAX_VALUE si vide
+
+    private Sorted(long[] values) {
+      int n = values.length;
+      this.values = values;
+      this.suffixSums = new long[n + 1];
+      this.suffixMins = new long[n + 1];
+      this.suffixMins[n] = Long.MAX_VALUE;
+      for (int i = n - 1; i >= 0; i--) {
+        this.suffixSums[i] = this.suffixSums[i + 1] + values[i];
+        this.suffixMins[i] = Math.min(this.suffixMins[i + 1], values[i]);
+      }
+    }
+
+    /**
+     * @return null si une valeur est négative
+     */
+    static Sorted of(long[] original) {
+      long[] values = original.clone();
+      Arrays.sort(values);
+      if (values.length > 0 && values[0] < 0)
+        return null;
+      for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+        long tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+      }
+      return new Sorted(values);
+    }
+  }
+}
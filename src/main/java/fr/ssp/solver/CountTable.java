@@ -0,0 +1,101 @@
+package fr.ssp.solver;
+
+import java.util.Arrays;
+
+/**
+ * Table somme -> nombre de sous-ensembles de SolutionCounter, sans boxing :
+ * même organisation que SubsetTable (clés et compteurs dans deux tableaux
+ * parallèles, dans l'ordre d'insertion, index à adressage ouvert), avec des
+ * compteurs long que add() refuse de faire déborder.
+ */
+final class CountTable {
+
+  private long[] keys;
+  private long[] counts;
+  private int[] slots; // indice + 1, 0 = vide
+  private int size;
+
+  /**
+   * @param expected nombre d'entrées prévu (la table grandit au-delà)
+   */
+  CountTable(int expected) {
+    int capacity = Math.max(expected, 4);
+    this.keys = new long[capacity];
+    this.counts = new long[capacity];
+    this.slots = new int[Integer.highestOneBit(2 * capacity - 1) << 1];
+  }
+
+  int size() {
+    return this.size;
+  }
+
+  long keyAt(int index) {
+    return this.keys[index];
+  }
+
+  long countAt(int index) {
+    return this.counts[index];
+  }
+
+  /**
+   * compteur de la somme, 0 si elle est absente
+   */
+  long get(long key) {
+    int mask = this.slots.length - 1;
+    for (int slot = SubsetTable.spread(key) & mask;; slot = (slot + 1) & mask) {
+      int i = this.slots[slot] - 1;
+      if (i < 0)
+        return 0;
+      if (this.keys[i] == key)
+        return this.counts[i];
+    }
+  }
+
+  /**
+   * ajoute count (positif) au compteur de la somme
+   *
+   * @return false, sans rien modifier, si le compteur déborderait
+   */
+  boolean add(long key, long count) {
+    int mask = this.slots.length - 1;
+    int slot = SubsetTable.spread(key) & mask;
+    for (;; slot = (slot + 1) & mask) {
+      int i = this.slots[slot] - 1;
+      if (i < 0)
+        break;
+      if (this.keys[i] == key) {
+        long c = this.counts[i] + count;
+        if (c < 0)
+          return false;
+        this.counts[i] = c;
+        return true;
+      }
+    }
+    if (this.size == this.keys.length) {
+      this.keys = Arrays.copyOf(this.keys, 2 * this.size);
+      this.counts = Arrays.copyOf(this.counts, 2 * this.size);
+    }
+    this.keys[this.size] = key;
+    this.counts[this.size] = count;
+    this.size++;
+    if (2 * this.size > this.slots.length)
+      rehash();
+    else
+      this.slots[slot] = this.size;
+    return true;
+  }
+
+  private void insert(int i) {
+    int mask = this.slots.length - 1;
+    int slot = SubsetTable.spread(this.keys[i]) & mask;
+    while (this.slots[slot] != 0)
+      slot = (slot + 1) & mask;
+    this.slots[slot] = i + 1;
+  }
+
+  private void rehash() {
+    this.slots = new int[2 * this.slots.length];
+    for (int i = 0; i < this.size; i++)
+      insert(i);
+  }
+}
@@ -0,0 +1,64 @@
+package fr.ssp.solver;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Échéance absolue d'une résolution, sur l'horloge monotone System.nanoTime().
+ */
+public final class Deadline {
+
+  /**
+   * aucune échéance
+   */
+  public static final Deadline NONE = new Deadline(0, false);
+
+  private final long nanos;
+  private final boolean bounded;
+
+  private Deadline(long nanos, boolean bounded) {
+    this.nanos = nanos;
+    this.bounded = bounded;
+  }
+
+  /**
+   * Échéance dans amount unités à partir de maintenant
+   * 
+   * @param amount la durée (positive ou nulle)
+   * @param unit   son unité
+   * @return l'échéance
+   */
+  public static Deadline after(long amount, TimeUnit unit) {
+    if (amount < 0)
+      throw new IllegalArgumentException("Duration cannot be negative");
+    return new Deadline(System.nanoTime() + unit.toNanos(amount), true);
+  }
+
+  public static Deadline after(Duration duration) {
+    return after(duration.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return true si l'échéance est dépassée
+   */
+  public boolean isExpired() {
+    return this.bounded && System.nanoTime() - this.nanos >= 0;
+  }
+
+  /**
+   * Temps restant avant l'échéance (0 si elle est dépassée, Long.MAX_VALUE
+   * sans échéance)
+   */
+  public long remaining(TimeUnit unit) {
+    if (!this.bounded)
+      return Long.MAX_VALUE;
+    return unit.convert(Math.max(0, this.nanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public String toString() {
+    if (!this.bounded)
+      return "Deadline(none)";
+    return "Deadline(" + remaining(TimeUnit.MILLISECONDS) + " ms left)";
+  }
+}
@@ -2,41 +2,281 @@ package fr.ssp.solver;
 
 import fr.ssp.api.Subset;
 import fr.ssp.impl.SubsetFactory;
+import fr.ssp.impl.SubsetScope;
+import fr.ssp.impl.SubsetV2;
 import java.util.*;
 
 public class DynamicProgrammingSolver extends SSPSolver {
 
+  /**
+   * plafond de la capacité réservée d'avance pour la table des sommes
+   */
+  private static final int MAX_RESERVE = 1 << 16;
+
+  private boolean twoPhase;
+
   public DynamicProgrammingSolver(long target, long[] original, SubsetFactory factory) {
     super(target, original, factory);
   }
 
+  /**
+   * Active la résolution en deux phases : une passe avant ne calcule que les
+   * sommes atteintes à chaque couche (tableaux de long triés), une passe
+   * arrière ne garde que les états qui mènent à la cible, et les Subset ne
+   * sont construits que pour ceux-là. Les solutions sont les mêmes, mais la
+   * mémoire occupée par les Subset suit la taille de la réponse et non celle
+   * de toutes les sommes partielles.
+   * 
+   * @param twoPhase true pour la résolution en deux phases
+   */
+  public void setTwoPhase(boolean twoPhase) {
+    this.twoPhase = twoPhase;
+  }
+
   @Override
-  public Subset solve() {
-    Map<Long, Subset> Sums = new HashMap<>();
-    Sums.put(0L, createSubset());
+  protected Subset search() {
+    if (mode == SolveMode.FIRST)
+      return first();
+    if (this.twoPhase)
+      return twoPhase();
 
+    // table d'unicité des nœuds (SubsetV2), libérée à la fin de la résolution
+    SubsetScope scope = factory.newScope();
     long total = totalSum();
+    SubsetTable sums = new SubsetTable(reserve(total));
+    sums.add(0L, scope.intern(createSubset()));
 
-    for (int i = 0; i < original.length; i++) {
-      List<Subset> newSets = new ArrayList<>();
+    Subset[] extended = new Subset[16];
+    int[] changed = new int[16]; // couche (+ 1) de la dernière modification
+    for (int i = 0; i < original.length && !interrupted(); i++) {
+      int layer = i + 1;
       total -= original[i];
 
-      for (long sum : Sums.keySet()) {
-        Subset sub = Sums.get(sum);
-        Subset newSet = createSubset(sub, original[i]);
-        newSets.add(newSet);
-      }
+      // les extensions de la couche précédente, en un seul passage
+      int n = sums.size();
+      if (extended.length < n)
+        extended = new Subset[Math.max(n, 2 * extended.length)];
+      for (int k = 0; k < n; k++)
+        extended[k] = scope.createSubset(sums.valueAt(k), original[i]);
 
-      for (Subset sub : newSets) {
+      // les représentants de la table d'unicité sont partagés : la portée les
+      // copie avant de les compléter
+      for (int k = 0; k < n; k++) {
+        Subset sub = extended[k];
+        extended[k] = null;
         long sum = sub.getSum();
-        if (Sums.containsKey(sum)) {
-          Sums.get(sum).encapsulate(sub);
+        int j = sums.indexOf(sum);
+        if (j >= 0) {
+          sums.setValueAt(j, scope.encapsulate(sums.valueAt(j), sub, quota()));
+          changed[j] = layer;
         } else if (sub.satisfiesBounds(target - total, target)) {
-          Sums.put(sum, sub);
+          j = sums.add(sum, sub);
+          if (changed.length <= j)
+            changed = Arrays.copyOf(changed, 2 * changed.length);
+          changed[j] = layer;
         }
       }
+      // la couche est terminée : ses nœuds ne changeront plus
+      for (int j = 0; j < sums.size(); j++) {
+        if (changed[j] == layer)
+          sums.setValueAt(j, scope.intern(sums.valueAt(j)));
+      }
+      stats.layer(sums.size());
+    }
+
+    Subset solutions = sums.get(target);
+    if (limit < Integer.MAX_VALUE && solutions instanceof SubsetV2)
+      solutions = firstSolutions((SubsetV2) solutions);
+    return scope.detach(solutions);
+  }
+
+  /**
+   * Résolution en deux phases (voir setTwoPhase). Les couches ont les mêmes
+   * sommes que la table de search() : une somme nouvelle n'entre que si elle
+   * respecte les bornes, une somme présente est toujours étendue.
+   */
+  private Subset twoPhase() {
+    int n = original.length;
+
+    // passe avant : reach[i] = sommes atteintes avec les i premiers éléments
+    long[][] reach = new long[n + 1][];
+    reach[0] = new long[] { 0 };
+    long total = totalSum();
+    long stored = 1;
+    int layers = 0;
+    for (int i = 0; i < n && !interrupted(); i++) {
+      total -= original[i];
+      reach[i + 1] = extend(reach[i], original[i], target - total, target);
+      stored += reach[i + 1].length;
+      stats.layer(reach[i + 1].length);
+      layers++;
+    }
+    if (layers < n || Arrays.binarySearch(reach[n], target) < 0)
+      return null;
+
+    // passe arrière : useful[i] = sommes de reach[i] qui mènent à la cible
+    long[][] useful = new long[n + 1][];
+    useful[n] = new long[] { target };
+    for (int i = n - 1; i >= 0 && !interrupted(); i--) {
+      long[] next = useful[i + 1];
+      long[] layer = new long[reach[i].length];
+      int size = 0;
+      for (long sum : reach[i]) {
+        if (Arrays.binarySearch(next, sum) >= 0 || Arrays.binarySearch(next, sum + original[i]) >= 0)
+          layer[size++] = sum;
+      }
+      useful[i] = Arrays.copyOf(layer, size);
+      reach[i + 1] = null;
+    }
+    stats.state(stored);
+    if (useful[0] == null || useful[0].length == 0)
+      return null;
+
+    // construction : subsets[k] = solutions de somme useful[i][k] ; un état
+    // qui n'utilise pas l'élément i reprend le Subset de la couche précédente
+    SubsetScope scope = factory.newScope();
+    Subset[] subsets = { scope.intern(createSubset()) };
+    for (int i = 0; i < n; i++) {
+      if (interrupted())
+        return null;
+      long[] previous = useful[i];
+      long[] layer = useful[i + 1];
+      Subset[] built = new Subset[layer.length];
+      for (int k = 0; k < layer.length; k++) {
+        int skip = Arrays.binarySearch(previous, layer[k]);
+        int take = Arrays.binarySearch(previous, layer[k] - original[i]);
+        Subset result = skip >= 0 ? subsets[skip] : null;
+        if (take >= 0) {
+          Subset extended = scope.createSubset(subsets[take], original[i]);
+          if (result == null) {
+            result = extended;
+          } else {
+            Subset merged = createSubset();
+            merged.clone(result);
+            merged.encapsulate(extended, quota());
+            result = scope.intern(merged);
+          }
+        }
+        built[k] = result;
+      }
+      subsets = built;
+      useful[i] = null;
+    }
+
+    Subset solutions = subsets[0];
+    if (limit < Integer.MAX_VALUE && solutions instanceof SubsetV2)
+      solutions = firstSolutions((SubsetV2) solutions);
+    return scope.detach(solutions);
+  }
+
+  /**
+   * union triée de sums et des sommes sum + value comprises dans [low, high]
+   */
+  private static long[] extend(long[] sums, long value, long low, long high) {
+    long[] result = new long[2 * sums.length];
+    int size = 0;
+    int a = 0;
+    int b = 0;
+    while (a < sums.length || b < sums.length) {
+      if (b < sums.length && (sums[b] + value < low || sums[b] + value > high)) {
+        b++;
+      } else if (b == sums.length || (a < sums.length && sums[a] < sums[b] + value)) {
+        result[size++] = sums[a++];
+      } else if (a < sums.length && sums[a] == sums[b] + value) {
+        result[size++] = sums[a++];
+        b++;
+      } else {
+        result[size++] = sums[b++] + value;
+      }
     }
+    return Arrays.copyOf(result, size);
+  }
+
+  /**
+   * Capacité réservée pour la table des sommes : au plus une entrée par somme
+   * de la fenêtre [target - total, target] (bornée par 0 si les valeurs sont
+   * positives) et par sous-ensemble, plafonnée à MAX_RESERVE.
+   */
+  private int reserve(long total) {
+    long low = target - total;
+    boolean positive = true;
+    for (long value : original)
+      positive &= value >= 0;
+    if (positive)
+      low = Math.max(low, 0);
+    long window = target >= low ? target - low + 1 : 1;
+    if (window <= 0) // dépassement de capacité
+      window = Long.MAX_VALUE;
+    long subsets = original.length < 62 ? 1L << original.length : Long.MAX_VALUE;
+    return (int) Math.min(Math.min(window, subsets), MAX_RESERVE);
+  }
+
+  /**
+   * Avec SubsetV2, la limite borne les liens de chaque nœud mais pas le nombre
+   * de chemins du DAG : on ne garde que les limit premières solutions.
+   */
+  private Subset firstSolutions(SubsetV2 dag) {
+    Iterator<long[]> it = dag.iterator();
+    Subset solutions = createSubset();
+    for (int k = 0; k < limit && it.hasNext(); k++) {
+      Subset solution = createSubset();
+      for (long value : it.next())
+        solution = createSubset(solution, value);
+      if (k == 0) {
+        solutions.clone(solution);
+      } else {
+        solutions.encapsulate(solution);
+      }
+    }
+    ((SubsetV2) solutions).normalize();
+    return solutions;
+  }
 
-    return Sums.get(target);
+  /**
+   * Mode FIRST : seules les sommes atteintes sont conservées, avec l'indice de
+   * l'élément qui les a atteintes en premier. Les couches s'arrêtent dès que la
+   * cible apparaît, puis un témoin est reconstruit en remontant les
+   * prédécesseurs (null si la cible est inatteignable).
+   */
+  private Subset first() {
+    Map<Long, Integer> reached = new HashMap<>();
+    reached.put(0L, -1);
+
+    long total = totalSum();
+    long[] layer = new long[16];
+    for (int i = 0; i < original.length && !reached.containsKey(target) && !interrupted(); i++) {
+      total -= original[i];
+
+      // les sommes de la couche précédente seulement
+      if (layer.length < reached.size())
+        layer = new long[2 * reached.size()];
+      int size = 0;
+      for (long sum : reached.keySet())
+        layer[size++] = sum;
+
+      for (int k = 0; k < size; k++) {
+        long sum = layer[k] + original[i];
+        if (target - total <= sum && sum <= target)
+          reached.putIfAbsent(sum, i);
+      }
+      stats.layer(reached.size());
+    }
+
+    if (!reached.containsKey(target))
+      return null;
+    stats.solutionsFound++;
+
+    // chaque somme a été atteinte depuis une somme d'une couche antérieure
+    int[] chosen = new int[original.length];
+    int count = 0;
+    long sum = target;
+    for (int i = reached.get(sum); i >= 0; i = reached.get(sum)) {
+      chosen[count++] = i;
+      sum -= original[i];
+    }
+    Subset witness = createSubset();
+    for (int k = count - 1; k >= 0; k--)
+      witness = createSubset(witness, original[chosen[k]]);
+    return witness;
   }
 }
\ No newline at end of file
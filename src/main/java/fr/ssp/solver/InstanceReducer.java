@@ -0,0 +1,274 @@
+package fr.ssp.solver;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+import fr.ssp.impl.SubsetV2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prétraitement d'une instance avant sa résolution.
+ *
+ * Les réductions suivantes sont appliquées jusqu'à un point fixe :
+ * <ul>
+ * <li>division des valeurs et de la cible par leur PGCD ;</li>
+ * <li>suppression des éléments plus grands que la cible ;</li>
+ * <li>éléments forcés : un élément plus grand que la marge (somme restante
+ * moins la cible) appartient à toutes les solutions, il est retiré et la cible
+ * diminuée d'autant.</li>
+ * </ul>
+ * Enfin, si la somme restante moins la cible est plus petite que la cible, on
+ * cherche le complément (les éléments à laisser de côté).
+ *
+ * L'instance réduite se résout avec n'importe quel SSPSolver et lift() ramène
+ * ses solutions sur les valeurs d'origine. Le prétraitement est facultatif :
+ * les solveurs travaillent sur l'instance telle quelle, c'est à l'appelant de
+ * passer par SSP.preprocess() s'il le souhaite. Les réductions supposent des
+ * valeurs positives : avec une valeur négative, l'instance est conservée telle
+ * quelle.
+ */
+public class InstanceReducer {
+
+  private final long[] original;
+  private final long originalTarget;
+
+  private boolean[] kept; // éléments de l'instance réduite
+  private boolean[] forced; // éléments pris d'office
+  private long target; // cible réduite
+  private long gcd = 1;
+  private int dropped;
+  private int forcedCount;
+  private boolean complemented;
+  private boolean infeasible;
+
+  public InstanceReducer(long target, long[] original) {
+    if (original == null)
+      throw new IllegalArgumentException("Values array cannot be null");
+    this.original = original.clone();
+    this.originalTarget = target;
+    this.target = target;
+    int n = original.length;
+    this.kept = new boolean[n];
+    this.forced = new boolean[n];
+    Arrays.fill(this.kept, true);
+
+    for (long value : original) {
+      if (value < 0)
+        return;
+    }
+    reduce();
+  }
+
+  private void reduce() {
+    int n = this.original.length;
+    boolean changed = true;
+    while (changed && !this.infeasible) {
+      changed = false;
+
+      long g = 0;
+      for (int i = 0; i < n; i++) {
+        if (this.kept[i])
+          g = gcd(g, reduced(i));
+      }
+      if (g > 1) {
+        if (this.target % g != 0) {
+          this.infeasible = true;
+          break;
+        }
+        this.gcd *= g;
+        this.target /= g;
+        changed = true;
+      }
+
+      long total = 0;
+      for (int i = 0; i < n; i++) {
+        if (this.kept[i] && reduced(i) > this.target) {
+          this.kept[i] = false;
+          this.dropped++;
+          changed = true;
+        } else if (this.kept[i]) {
+          total += reduced(i);
+        }
+      }
+      if (this.target < 0 || total < this.target) {
+        this.infeasible = true;
+        break;
+      }
+
+      long slack = total - this.target;
+      for (int i = 0; i < n; i++) {
+        if (this.kept[i] && reduced(i) > slack) {
+          this.kept[i] = false;
+          this.forced[i] = true;
+          this.forcedCount++;
+          this.target -= reduced(i);
+          changed = true;
+        }
+      }
+    }
+    if (this.infeasible)
+      return;
+
+    // complément : les zéros rendraient les deux énumérations différentes
+    long total = 0;
+    boolean zero = false;
+    for (int i = 0; i < n; i++) {
+      if (this.kept[i]) {
+        total += reduced(i);
+        zero |= reduced(i) == 0;
+      }
+    }
+    if (!zero && total - this.target < this.target) {
+      this.target = total - this.target;
+      this.complemented = true;
+    }
+  }
+
+  private long reduced(int i) {
+    return this.original[i] / this.gcd;
+  }
+
+  private static long gcd(long a, long b) {
+    while (b != 0) {
+      long r = a % b;
+      a = b;
+      b = r;
+    }
+    return a;
+  }
+
+  /**
+   * Cible de l'instance réduite
+   */
+  public long getTarget() {
+    return this.infeasible ? 1 : this.target;
+  }
+
+  /**
+   * Valeurs de l'instance réduite (vide si l'instance est infaisable)
+   */
+  public long[] getValues() {
+    int m = 0;
+    for (int i = 0; i < this.original.length; i++) {
+      if (this.kept[i] && !this.infeasible)
+        m++;
+    }
+    long[] values = new long[m];
+    m = 0;
+    for (int i = 0; i < this.original.length; i++) {
+      if (this.kept[i] && !this.infeasible)
+        values[m++] = reduced(i);
+    }
+    return values;
+  }
+
+  /**
+   * Ramène les solutions de l'instance réduite sur les valeurs d'origine
+   *
+   * @param solutions les solutions de l'instance réduite (null ou une famille
+   *                  de somme différente de la cible réduite : aucune solution)
+   * @param factory   la fabrique des sous-ensembles retournés
+   * @return les solutions de l'instance d'origine, ou null s'il n'y en a pas
+   */
+  public Subset lift(Subset solutions, SubsetFactory factory) {
+    if (this.infeasible || solutions == null || solutions.getSum() != this.target)
+      return null;
+
+    // positions de chaque valeur réduite : les doublons occupent chacun la leur
+    int n = this.original.length;
+    Map<Long, List<Integer>> positions = new HashMap<>();
+    for (int i = 0; i < n; i++) {
+      if (this.kept[i])
+        positions.computeIfAbsent(reduced(i), v -> new ArrayList<>()).add(i);
+    }
+
+    Subset[] lifted = new Subset[1];
+    boolean[] chosen = new boolean[n];
+    solutions.forEachSolution((buffer, length) -> {
+      Arrays.fill(chosen, false);
+      for (int k = 0; k < length; k++)
+        chosen[position(positions, chosen, buffer[k])] = true;
+      Subset solution = factory.createSubset();
+      for (int i = 0; i < n; i++) {
+        if (this.forced[i] || (this.kept[i] && chosen[i] != this.complemented))
+          solution = factory.createSubset(solution, this.original[i]);
+      }
+      if (lifted[0] == null) {
+        lifted[0] = factory.createSubset();
+        lifted[0].clone(solution);
+      } else {
+        lifted[0].encapsulate(solution);
+      }
+    });
+
+    if (lifted[0] instanceof SubsetV2)
+      ((SubsetV2) lifted[0]).normalize();
+    return lifted[0];
+  }
+
+  /**
+   * Première position libre portant la valeur réduite donnée
+   */
+  private static int position(Map<Long, List<Integer>> positions, boolean[] chosen, long value) {
+    List<Integer> candidates = positions.get(value);
+    if (candidates != null) {
+      for (int i : candidates) {
+        if (!chosen[i])
+          return i;
+      }
+    }
+    throw new IllegalArgumentException("Value " + value + " is not available in the reduced instance");
+  }
+
+  public boolean isInfeasible() {
+    return this.infeasible;
+  }
+
+  public boolean isComplemented() {
+    return this.complemented;
+  }
+
+  public long getGcd() {
+    return this.gcd;
+  }
+
+  public int getDroppedCount() {
+    return this.dropped;
+  }
+
+  public int getForcedCount() {
+    return this.forcedCount;
+  }
+
+  public int getOriginalSize() {
+    return this.original.length;
+  }
+
+  public int getReducedSize() {
+    return getValues().length;
+  }
+
+  /**
+   * Rapport de réduction
+   */
+  @Override
+  public String toString() {
+    if (this.infeasible)
+      return "Reduction(n = " + this.original.length + "; target = " + this.originalTarget + " -> infeasible)";
+    String s = "Reduction(n = " + this.original.length + " -> " + getReducedSize() + "; target = "
+        + this.originalTarget + " -> " + this.target;
+    if (this.gcd > 1)
+      s = s + "; gcd " + this.gcd;
+    if (this.dropped > 0)
+      s = s + "; " + this.dropped + " oversized";
+    if (this.forcedCount > 0)
+      s = s + "; " + this.forcedCount + " forced";
+    if (this.complemented)
+      s = s + "; complemented";
+    return s + ")";
+  }
+}
@@ -0,0 +1,113 @@
+package fr.ssp.solver;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+import fr.ssp.impl.SubsetV2;
+
+/**
+ * Branch and Prune itératif sur une pile explicite de primitives.
+ *
+ * Même parcours que BranchAndPruneSolver (sans l'élément, puis avec), mais la
+ * profondeur n'est plus limitée par la pile d'appels : chaque niveau ne stocke
+ * que sa somme partielle, le total restant et son étape, et les décisions du
+ * chemin courant tiennent dans un masque de bits. Un Subset n'est construit
+ * que lorsqu'une solution est émise.
+ */
+public class IterativeBranchAndPruneSolver extends SSPSolver {
+
+  private static final byte ENTER = 0;
+  private static final byte INCLUDE = 1;
+  private static final byte DONE = 2;
+
+  public IterativeBranchAndPruneSolver(long target, long[] original, SubsetFactory factory) {
+    super(target, original, factory);
+  }
+
+  @Override
+  protected Subset search() {
+    int n = original.length;
+    long[] sums = new long[n + 1];
+    long[] totals = new long[n + 1];
+    byte[] stages = new byte[n + 1];
+    long[] chosen = new long[(n >>> 6) + 1];
+    Subset solutions = createSubset();
+
+    int d = 0;
+    totals[0] = totalSum();
+    while (d >= 0 && !satisfied() && !checkpoint()) {
+      long sum = sums[d];
+      long total = totals[d];
+      switch (stages[d]) {
+        case ENTER:
+          stats.nodesExpanded++;
+          if (listener != null)
+            listener.nodeEntered(d, sum, total);
+          if (sum < target - total || sum > target) {
+            stats.nodesPruned++;
+            if (listener != null)
+              listener.nodePruned(d, sum, total);
+            d--;
+          } else if (sum == target) {
+            stats.solutionsFound++;
+            emit(chosen, d, solutions);
+            d--;
+          } else if (d == n) {
+            if (listener != null)
+              listener.leafReached(d, sum);
+            d--;
+          } else {
+            // sans l'élément d
+            stages[d] = INCLUDE;
+            sums[d + 1] = sum;
+            totals[d + 1] = total - original[d];
+            stages[d + 1] = ENTER;
+            d++;
+          }
+          break;
+        case INCLUDE:
+          // avec l'élément d
+          stages[d] = DONE;
+          chosen[d >>> 6] |= 1L << d;
+          sums[d + 1] = sum + original[d];
+          totals[d + 1] = total - original[d];
+          stages[d + 1] = ENTER;
+          d++;
+          break;
+        default:
+          chosen[d >>> 6] &= ~(1L << d);
+          d--;
+          break;
+      }
+    }
+
+    // Normaliser le résultat si c'est une instance de SubsetV2
+    if (solutions instanceof SubsetV2) {
+      ((SubsetV2) solutions).normalize();
+    }
+    return solutions;
+  }
+
+  /**
+   * construit le Subset des éléments choisis parmi les d premiers
+   */
+  private void emit(long[] chosen, int d, Subset solutions) {
+    Subset partial = createSubset();
+    for (int w = 0; w <= (d - 1) >>> 6 && d > 0; w++) {
+      long bits = chosen[w];
+      while (bits != 0) {
+        int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+        if (i >= d)
+          break;
+        partial = createSubset(partial, original[i]);
+        bits &= bits - 1;
+      }
+    }
+    if (listener != null)
+      listener.solutionFound(d, partial);
+    if (solutions.getSum() == 0) {
+      solutions.clone(partial);
+    } else {
+      solutions.encapsulate(partial);
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package fr.ssp.solver;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+
+import java.util.Arrays;
+
+/**
+ * Solveur "meet in the middle" (Horowitz-Sahni).
+ *
+ * Les éléments sont coupés en deux moitiés dont on énumère toutes les sommes
+ * dans des tableaux long[] (indicés par le masque des éléments choisis). Des
+ * copies triées par Arrays.parallelSort sont parcourues par deux pointeurs
+ * pour trouver les couples de sommes atteignant la cible ; les masques
+ * correspondants ne sont retrouvés qu'ensuite, pour les seules sommes
+ * retenues. Temps et mémoire en O(2^(n/2)), indépendamment de la taille des
+ * valeurs.
+ */
+public class MeetInTheMiddleSolver extends SSPSolver {
+
+  /**
+   * au-delà, une moitié ne tient plus dans un tableau Java
+   */
+  private static final int MAX_HALF = 30;
+
+  public MeetInTheMiddleSolver(long target, long[] original, SubsetFactory factory) {
+    super(target, original, factory);
+    if (original.length - original.length / 2 > MAX_HALF)
+      throw new IllegalArgumentException("Too many elements for meet in the middle (max " + 2 * MAX_HALF + ")");
+  }
+
+  /**
+   * Retourne les solutions, ou null si la cible n'est pas atteignable
+   */
+  @Override
+  protected Subset search() {
+    int half = original.length / 2;
+    long[] left = sums(0, half);
+    long[] right = sums(half, original.length);
+    long[] sortedLeft = left.clone();
+    long[] sortedRight = right.clone();
+    Arrays.parallelSort(sortedLeft);
+    Arrays.parallelSort(sortedRight);
+    stats.state(2L * (left.length + right.length));
+
+    // sommes distinctes a de la moitié gauche telles que target - a existe à
+    // droite, par ordre croissant
+    long[] matches = new long[16];
+    int count = 0;
+    int i = 0;
+    int j = sortedRight.length - 1;
+    while (i < sortedLeft.length && j >= 0 && !checkpoint()) {
+      long sum = sortedLeft[i] + sortedRight[j];
+      if (sum < target) {
+        i++;
+      } else if (sum > target) {
+        j--;
+      } else {
+        if (count == matches.length)
+          matches = Arrays.copyOf(matches, 2 * count);
+        long a = sortedLeft[i];
+        matches[count++] = a;
+        if (mode == SolveMode.FIRST)
+          break;
+        while (i < sortedLeft.length && sortedLeft[i] == a)
+          i++;
+      }
+    }
+    if (count == 0)
+      return null;
+    matches = Arrays.copyOf(matches, count);
+
+    if (mode == SolveMode.FIRST) {
+      int maskLeft = indexOf(left, matches[0]);
+      int maskRight = indexOf(right, target - matches[0]);
+      stats.solutionsFound++;
+      return extend(extend(createSubset(), maskLeft, 0), maskRight, half);
+    }
+
+    // complements : sommes attendues à droite, par ordre croissant
+    long[] complements = new long[count];
+    for (int k = 0; k < count; k++)
+      complements[k] = target - matches[count - 1 - k];
+    int[][] groupsLeft = group(left, matches);
+    int[][] groupsRight = group(right, complements);
+
+    Subset solutions = null;
+    for (int k = 0; k < count && !satisfied() && !interrupted(); k++) {
+      int[] masksRight = groupsRight[count - 1 - k];
+      for (int maskLeft : groupsLeft[k]) {
+        if (satisfied())
+          break;
+        Subset partial = extend(createSubset(), maskLeft, 0);
+        for (int maskRight : masksRight) {
+          if (satisfied())
+            break;
+          Subset solution = extend(partial, maskRight, half);
+          stats.solutionsFound++;
+          if (solutions == null) {
+            solutions = createSubset();
+            solutions.clone(solution);
+          } else {
+            solutions.encapsulate(solution);
+          }
+        }
+      }
+    }
+    return solutions;
+  }
+
+  /**
+   * sommes de tous les sous-ensembles de original[from..to), indicées par masque
+   */
+  private long[] sums(int from, int to) {
+    long[] sums = new long[1 << (to - from)];
+    for (int mask = 1; mask < sums.length; mask++)
+      sums[mask] = sums[mask & (mask - 1)] + original[from + Integer.numberOfTrailingZeros(mask)];
+    return sums;
+  }
+
+  private static int indexOf(long[] sums, long value) {
+    for (int mask = 0; mask < sums.length; mask++) {
+      if (sums[mask] == value)
+        return mask;
+    }
+    throw new IllegalStateException("Sum " + value + " not found");
+  }
+
+  /**
+   * regroupe les masques dont la somme appartient à keys (trié, sans doublon)
+   * 
+   * @return pour chaque clé, les masques de somme égale à cette clé
+   */
+  private static int[][] group(long[] sums, long[] keys) {
+    int[] counts = new int[keys.length];
+    for (long sum : sums) {
+      int k = Arrays.binarySearch(keys, sum);
+      if (k >= 0)
+        counts[k]++;
+    }
+    int[][] groups = new int[keys.length][];
+    for (int k = 0; k < keys.length; k++)
+      groups[k] = new int[counts[k]];
+    Arrays.fill(counts, 0);
+    for (int mask = 0; mask < sums.length; mask++) {
+      int k = Arrays.binarySearch(keys, sums[mask]);
+      if (k >= 0)
+        groups[k][counts[k]++] = mask;
+    }
+    return groups;
+  }
+
+  /**
+   * ajoute à subset les éléments original[offset + b] pour chaque bit b du
+   * masque
+   */
+  private Subset extend(Subset subset, int mask, int offset) {
+    while (mask != 0) {
+      subset = createSubset(subset, original[offset + Integer.numberOfTrailingZeros(mask)]);
+      mask &= mask - 1;
+    }
+    return subset;
+  }
+}
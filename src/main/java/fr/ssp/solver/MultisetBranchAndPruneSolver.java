@@ -0,0 +1,139 @@
+package fr.ssp.solver;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.MultisetSubset;
+
+import java.util.Arrays;
+
+/**
+ * Branch and Prune sur les multi-ensembles.
+ *
+ * Les valeurs d'entrée sont regroupées en couples (valeur, multiplicité) et
+ * chaque niveau de l'arbre choisit combien de copies d'une valeur prendre (de
+ * la multiplicité à 0) au lieu de brancher sur chaque copie : les branches
+ * symétriques qui permutent des copies identiques n'existent plus. Les
+ * solutions sont des MultisetSubset ; les valeurs peuvent être négatives et
+ * répétées, contrairement aux Subset de SubsetFactory.
+ *
+ * Le solveur n'a donc pas de SubsetFactory : il hérite d'AbstractSolver
+ * (mode, limite, échéance, statistiques) et non de SSPSolver. Les instances
+ * dont les sommes partielles pourraient dépasser la capacité d'un long sont
+ * refusées à la construction.
+ */
+public class MultisetBranchAndPruneSolver extends AbstractSolver {
+
+  private final long[] values; // valeurs distinctes
+  private final int[] multiplicities;
+  private final long[] positives; // somme des v * m positifs des niveaux i..k-1
+  private final long[] negatives; // somme des v * m négatifs des niveaux i..k-1
+
+  /**
+   * @throws IllegalArgumentException si la somme des valeurs positives ou
+   *                                  négatives, ou leur écart, dépasse la
+   *                                  capacité d'un long
+   */
+  public MultisetBranchAndPruneSolver(long target, long[] original) {
+    super(target, original);
+    long[] sorted = original.clone();
+    Arrays.sort(sorted);
+    int k = 0;
+    for (int i = 0; i < sorted.length; i++) {
+      if (i == 0 || sorted[i] != sorted[i - 1])
+        k++;
+    }
+
+    // valeurs par ordre décroissant de valeur absolue : les grands pas d'abord
+    long[] distinct = new long[k];
+    int[] counts = new int[k];
+    k = 0;
+    for (int i = 0; i < sorted.length; i++) {
+      if (i > 0 && sorted[i] == sorted[i - 1]) {
+        counts[k - 1]++;
+      } else {
+        distinct[k] = sorted[i];
+        counts[k++] = 1;
+      }
+    }
+    Integer[] order = new Integer[k];
+    for (int i = 0; i < k; i++)
+      order[i] = i;
+    Arrays.sort(order, (a, b) -> Long.compare(Math.abs(distinct[b]), Math.abs(distinct[a])));
+    this.values = new long[k];
+    this.multiplicities = new int[k];
+    for (int i = 0; i < k; i++) {
+      this.values[i] = distinct[order[i]];
+      this.multiplicities[i] = counts[order[i]];
+    }
+
+    // toutes les sommes partielles sont dans [negatives[0], positives[0]] :
+    // si cet intervalle tient dans un long, aucun calcul de bpRec ne déborde
+    this.positives = new long[k + 1];
+    this.negatives = new long[k + 1];
+    try {
+      for (int i = k - 1; i >= 0; i--) {
+        long weight = Math.multiplyExact(this.values[i], (long) this.multiplicities[i]);
+        this.positives[i] = Math.addExact(this.positives[i + 1], Math.max(weight, 0));
+        this.negatives[i] = Math.addExact(this.negatives[i + 1], Math.min(weight, 0));
+      }
+      Math.subtractExact(this.positives[0], this.negatives[0]);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Sum of values overflows a long");
+    }
+  }
+
+  /**
+   * Retourne les multi-ensembles atteignant la cible, ou la famille {∅} de somme
+   * nulle s'il n'y en a pas (comme BranchAndPruneSolver avec SubsetV1)
+   */
+  @Override
+  protected Subset search() {
+    // hors de [negatives[0], positives[0]], la cible est inaccessible (et
+    // target - positives[i] pourrait déborder)
+    if (target < this.negatives[0] || target > this.positives[0])
+      return new MultisetSubset();
+    int[] chosen = new int[this.values.length];
+    MultisetSubset solutions = bpRec(0, 0, chosen, null);
+    return solutions == null ? new MultisetSubset() : solutions;
+  }
+
+  private MultisetSubset bpRec(int i, long sum, int[] chosen, MultisetSubset solutions) {
+    if (satisfied() || checkpoint())
+      return solutions;
+    stats.nodesExpanded++;
+    if (listener != null)
+      listener.nodeEntered(i, sum, this.positives[i]);
+
+    if (sum < target - this.positives[i] || sum > target - this.negatives[i]) {
+      stats.nodesPruned++;
+      if (listener != null)
+        listener.nodePruned(i, sum, this.positives[i]);
+      return solutions;
+    }
+
+    if (sum == target) {
+      // les multiplicités des niveaux i et suivants sont nulles
+      MultisetSubset partial = new MultisetSubset(this.values, chosen);
+      stats.solutionsFound++;
+      if (listener != null)
+        listener.solutionFound(i, partial);
+      if (solutions == null) {
+        solutions = partial;
+      } else {
+        solutions.encapsulate(partial);
+      }
+      return solutions;
+    }
+
+    // une feuille a toujours été élaguée ou retenue ci-dessus
+
+    // de la multiplicité maximale à aucune copie (c * value est borné par
+    // positives[0] - negatives[0], vérifié à la construction)
+    long value = this.values[i];
+    for (int c = this.multiplicities[i]; c >= 0; c--) {
+      chosen[i] = c;
+      solutions = bpRec(i + 1, sum + c * value, chosen, solutions);
+    }
+    chosen[i] = 0;
+    return solutions;
+  }
+}
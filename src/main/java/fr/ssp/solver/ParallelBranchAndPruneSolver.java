@@ -0,0 +1,247 @@
+package fr.ssp.solver;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+import fr.ssp.impl.SubsetV2;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Branch and Prune parallèle sur un ForkJoinPool.
+ *
+ * Au-dessus de la profondeur de coupure, les sous-arbres "avec" et "sans"
+ * l'élément courant deviennent des tâches ; en dessous (ou quand il reste trop
+ * peu d'éléments pour amortir une tâche), la recherche est séquentielle. Chaque
+ * tâche collecte ses solutions localement et les résultats sont fusionnés par
+ * encapsulate à la jonction : l'ensemble des solutions est le même que celui
+ * de BranchAndPruneSolver.
+ *
+ * Le quota de solutions (mode FIRST ou limite) est partagé par un compteur
+ * atomique : une fois atteint, toutes les tâches s'arrêtent.
+ *
+ * Les tâches tournent sur les threads du pool : l'interruption du thread
+ * appelant y est invisible. Celui-ci attend donc le résultat de manière
+ * interruptible et, s'il est interrompu, demande l'arrêt (cancel()), que
+ * toutes les tâches voient ; son statut d'interruption est rétabli au retour.
+ * Chaque tâche tient son propre compteur de points de contrôle.
+ *
+ * L'écouteur de recherche reçoit les mêmes événements que dans
+ * BranchAndPruneSolver, mais depuis les threads du pool et sans ordre entre
+ * les tâches : il doit être thread-safe. Un nœud donné est signalé par une
+ * seule tâche, et solutionFound ne l'est que pour les solutions retenues dans
+ * le quota.
+ */
+public class ParallelBranchAndPruneSolver extends SSPSolver {
+
+  /**
+   * en dessous de ce nombre d'éléments restants, on ne crée plus de tâches
+   */
+  private static final int MIN_FORK_ITEMS = 8;
+
+  private final ForkJoinPool pool;
+  private final int cutoff;
+  private final AtomicLong collected = new AtomicLong();
+
+  public ParallelBranchAndPruneSolver(long target, long[] original, SubsetFactory factory) {
+    this(target, original, factory, ForkJoinPool.commonPool(), defaultCutoff(ForkJoinPool.commonPool()));
+  }
+
+  /**
+   * @param pool   le pool d'exécution
+   * @param cutoff profondeur à partir de laquelle la recherche devient
+   *               séquentielle
+   */
+  public ParallelBranchAndPruneSolver(long target, long[] original, SubsetFactory factory, ForkJoinPool pool,
+      int cutoff) {
+    super(target, original, factory);
+    if (pool == null)
+      throw new IllegalArgumentException("Pool cannot be null");
+    if (cutoff < 0)
+      throw new IllegalArgumentException("Cutoff depth cannot be negative");
+    this.pool = pool;
+    this.cutoff = cutoff;
+  }
+
+  /**
+   * environ 16 tâches par thread du pool
+   */
+  private static int defaultCutoff(ForkJoinPool pool) {
+    return 32 - Integer.numberOfLeadingZeros(pool.getParallelism()) + 4;
+  }
+
+  @Override
+  protected Subset search() {
+    this.collected.set(0);
+    Branch root = new Branch(0, createSubset(), totalSum());
+    Subset solutions = await(this.pool.submit(root));
+    stats.nodesExpanded += root.nodes;
+    stats.nodesPruned += root.pruned;
+    stats.solutionsFound += root.found;
+
+    if (solutions == null)
+      solutions = createSubset();
+    if (solutions instanceof SubsetV2) {
+      ((SubsetV2) solutions).normalize();
+    }
+    return solutions;
+  }
+
+  /**
+   * attend la fin de la recherche ; une interruption du thread appelant
+   * arrête les tâches, dont on attend tout de même la fin
+   */
+  private Subset await(ForkJoinTask<Subset> task) {
+    boolean interruptedCaller = false;
+    try {
+      while (true) {
+        try {
+          return task.get();
+        } catch (InterruptedException e) {
+          interruptedCaller = true;
+          cancel();
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof RuntimeException)
+            throw (RuntimeException) cause;
+          if (cause instanceof Error)
+            throw (Error) cause;
+          throw new IllegalStateException(cause);
+        }
+      }
+    } finally {
+      if (interruptedCaller)
+        Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * fusionne deux résultats partiels (null : aucune solution)
+   */
+  private static Subset merge(Subset a, Subset b) {
+    if (a == null)
+      return b;
+    if (b != null)
+      a.encapsulate(b);
+    return a;
+  }
+
+  private final class Branch extends RecursiveTask<Subset> {
+    private static final long serialVersionUID = 1L;
+
+    private final int index;
+    private final Subset partial;
+    private final long total;
+
+    // compteurs locaux, remontés au parent après la jonction
+    private long nodes;
+    private long pruned;
+    private long found;
+    private int ticks;
+    private boolean stopped;
+
+    Branch(int index, Subset partial, long total) {
+      this.index = index;
+      this.partial = partial;
+      this.total = total;
+    }
+
+    @Override
+    protected Subset compute() {
+      if (collected.get() >= quota() || interrupted())
+        return null;
+      int i = this.index;
+      if (i >= cutoff || original.length - i <= MIN_FORK_ITEMS)
+        return bpRec(i, this.partial, this.total, null);
+
+      this.nodes++;
+      if (listener != null)
+        listener.nodeEntered(i, this.partial.getSum(), this.total);
+      if (!this.partial.satisfiesBounds(target - this.total, target)) {
+        this.pruned++;
+        if (listener != null)
+          listener.nodePruned(i, this.partial.getSum(), this.total);
+        return null;
+      }
+      if (this.partial.getSum() == target) {
+        return collect(i, null, this.partial);
+      }
+
+      long rest = this.total - original[i];
+      Branch with = new Branch(i + 1, createSubset(this.partial, original[i]), rest);
+      Branch without = new Branch(i + 1, this.partial, rest);
+      with.fork();
+      Subset solutions = without.compute();
+      Subset others = with.join();
+      this.nodes += without.nodes + with.nodes;
+      this.pruned += without.pruned + with.pruned;
+      this.found += without.found + with.found;
+      return merge(solutions, others);
+    }
+
+    /**
+     * comme SSPSolver.checkpoint, avec le compteur de la tâche : une fois
+     * l'arrêt constaté, il vaut pour tout le reste de la tâche
+     */
+    private boolean checkpoint() {
+      if (this.stopped)
+        return true;
+      if ((++this.ticks & (CHECK_INTERVAL - 1)) != 0)
+        return false;
+      this.stopped = interrupted();
+      return this.stopped;
+    }
+
+    /**
+     * même parcours que BranchAndPruneSolver.bpRec, dans la tâche courante
+     */
+    private Subset bpRec(int i, Subset partial, long total, Subset solutions) {
+      if (collected.get() >= quota() || checkpoint())
+        return solutions;
+      this.nodes++;
+      if (listener != null)
+        listener.nodeEntered(i, partial.getSum(), total);
+      if (!partial.satisfiesBounds(target - total, target)) {
+        this.pruned++;
+        if (listener != null)
+          listener.nodePruned(i, partial.getSum(), total);
+        return solutions;
+      }
+      if (partial.getSum() == target) {
+        return collect(i, solutions, partial);
+      }
+      if (i == original.length) {
+        if (listener != null)
+          listener.leafReached(i, partial.getSum());
+        return solutions;
+      }
+
+      total -= original[i];
+      solutions = bpRec(i + 1, partial, total, solutions);
+      return bpRec(i + 1, createSubset(partial, original[i]), total, solutions);
+    }
+
+    /**
+     * ajoute une solution au résultat local (copiée s'il s'agit de la première,
+     * car le partiel est partagé avec d'autres branches), sauf si le quota
+     * global est déjà atteint
+     */
+    private Subset collect(int i, Subset solutions, Subset partial) {
+      if (collected.incrementAndGet() > quota())
+        return solutions;
+      this.found++;
+      if (listener != null)
+        listener.solutionFound(i, partial);
+      if (solutions == null) {
+        solutions = createSubset();
+        solutions.clone(partial);
+      } else {
+        solutions.encapsulate(partial);
+      }
+      return solutions;
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package fr.ssp.solver;
+
+import fr.ssp.api.Subset;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Écouteur de trace asynchrone pour le débogage.
+ *
+ * Le thread du solveur n'écrit que des primitives dans un tampon circulaire
+ * (un producteur, un consommateur) ; un thread démon formate et imprime les
+ * événements. Quand le tampon est plein, les événements sont perdus et
+ * comptés plutôt que de ralentir la recherche.
+ *
+ * Les messages contiennent des caractères accentués : l'encodage est celui du
+ * PrintStream fourni, ou celui donné explicitement (UTF-8 par défaut), jamais
+ * l'encodage par défaut de la plateforme.
+ */
+public class RingBufferTraceSink implements SearchListener, AutoCloseable {
+
+  private static final byte ENTERED = 0;
+  private static final byte PRUNED = 1;
+  private static final byte SOLUTION = 2;
+  private static final byte LEAF = 3;
+
+  private final int mask;
+  private final byte[] kinds;
+  private final int[] indices;
+  private final long[] sums;
+  private final long[] remainings;
+
+  private final AtomicLong head = new AtomicLong(); // prochain événement à lire
+  private final AtomicLong tail = new AtomicLong(); // prochain emplacement libre
+  private long dropped;
+
+  private final PrintStream out;
+  private final Thread consumer;
+  private volatile boolean running = true;
+
+  /**
+   * @param capacity nombre d'événements en attente (arrondi à une puissance de
+   *                 deux)
+   * @param out      flux de sortie de la trace (les messages sont encodés avec
+   *                 l'encodage de ce flux)
+   */
+  public RingBufferTraceSink(int capacity, PrintStream out) {
+    if (capacity <= 0)
+      throw new IllegalArgumentException("Capacity must be positive");
+    if (out == null)
+      throw new IllegalArgumentException("Output stream cannot be null");
+    int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+    this.mask = size - 1;
+    this.kinds = new byte[size];
+    this.indices = new int[size];
+    this.sums = new long[size];
+    this.remainings = new long[size];
+    this.out = out;
+    this.consumer = new Thread(this::drain, "ssp-trace");
+    this.consumer.setDaemon(true);
+    this.consumer.start();
+  }
+
+  /**
+   * @param capacity nombre d'événements en attente (arrondi à une puissance de
+   *                 deux)
+   * @param out      flux de sortie de la trace
+   * @param charset  encodage des messages
+   */
+  public RingBufferTraceSink(int capacity, OutputStream out, Charset charset) {
+    this(capacity, printStream(out, charset));
+  }
+
+  /**
+   * trace vers System.err en UTF-8 avec un tampon de 64k événements
+   */
+  public RingBufferTraceSink() {
+    this(1 << 16, System.err, StandardCharsets.UTF_8);
+  }
+
+  private static PrintStream printStream(OutputStream out, Charset charset) {
+    if (out == null)
+      throw new IllegalArgumentException("Output stream cannot be null");
+    if (charset == null)
+      throw new IllegalArgumentException("Charset cannot be null");
+    return new PrintStream(out, true, charset);
+  }
+
+  @Override
+  public void nodeEntered(int index, long partialSum, long remaining) {
+    publish(ENTERED, index, partialSum, remaining);
+  }
+
+  @Override
+  public void nodePruned(int index, long partialSum, long remaining) {
+    publish(PRUNED, index, partialSum, remaining);
+  }
+
+  @Override
+  public void solutionFound(int index, Subset solution) {
+    publish(SOLUTION, index, solution.getSum(), 0);
+  }
+
+  @Override
+  public void leafReached(int index, long partialSum) {
+    publish(LEAF, index, partialSum, 0);
+  }
+
+  /**
+   * nombre d'événements perdus faute de place dans le tampon
+   */
+  public long getDropped() {
+    return this.dropped;
+  }
+
+  /**
+   * Vide le tampon, imprime les événements restants et arrête le thread de trace
+   */
+  @Override
+  public void close() {
+    this.running = false;
+    LockSupport.unpark(this.consumer);
+    try {
+      this.consumer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (this.dropped > 0)
+      this.out.println("trace: " + this.dropped + " événement(s) perdu(s)");
+    this.out.flush();
+  }
+
+  private void publish(byte kind, int index, long sum, long remaining) {
+    long t = this.tail.get();
+    if (t - this.head.get() > this.mask) {
+      this.dropped++;
+      return;
+    }
+    int slot = (int) t & this.mask;
+    this.kinds[slot] = kind;
+    this.indices[slot] = index;
+    this.sums[slot] = sum;
+    this.remainings[slot] = remaining;
+    this.tail.lazySet(t + 1);
+  }
+
+  private void drain() {
+    StringBuilder line = new StringBuilder(96);
+    long h = this.head.get();
+    while (true) {
+      long t = this.tail.get();
+      if (h == t) {
+        if (!this.running && h == this.tail.get())
+          return;
+        LockSupport.parkNanos(100_000L);
+        continue;
+      }
+      for (; h < t; h++) {
+        int slot = (int) h & this.mask;
+        line.setLength(0);
+        format(line, this.kinds[slot], this.indices[slot], this.sums[slot], this.remainings[slot]);
+        this.out.println(line);
+        this.head.lazySet(h + 1);
+      }
+    }
+  }
+
+  private static void format(StringBuilder line, byte kind, int index, long sum, long remaining) {
+    switch (kind) {
+      case ENTERED:
+        line.append("bpRec index=").append(index).append(", partial.sum=").append(sum)
+            .append(", total=").append(remaining);
+        break;
+      case PRUNED:
+        line.append("  Élagué par satisfiesBounds (index=").append(index).append(", partial.sum=").append(sum)
+            .append(')');
+        break;
+      case SOLUTION:
+        line.append("  Solution trouvée! Somme=").append(sum).append(" (index=").append(index).append(')');
+        break;
+      default:
+        line.append("  Fin du tableau atteinte (partial.sum=").append(sum).append(')');
+        break;
+    }
+  }
+}
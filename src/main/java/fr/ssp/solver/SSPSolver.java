@@ -3,27 +3,18 @@ package fr.ssp.solver;
 import fr.ssp.api.Subset;
 import fr.ssp.impl.SubsetFactory;
 
-public abstract class SSPSolver {
-  protected long target;
-  protected long[] original;
+/**
+ * Solveur dont les solutions sont construites par une SubsetFactory
+ */
+public abstract class SSPSolver extends AbstractSolver {
+
   protected final SubsetFactory factory;
 
   public SSPSolver(long target, long[] original, SubsetFactory factory) {
-    this.target = target;
-    this.original = original.clone();
+    super(target, original);
     this.factory = factory;
   }
 
-  public abstract Subset solve();
-
-  protected long totalSum() {
-    long sum = 0;
-    for (long value : original) {
-      sum += value;
-    }
-    return sum;
-  }
-
   /**
    * Create a new empty subset
    * 
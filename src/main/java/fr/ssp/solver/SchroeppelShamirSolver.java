@@ -0,0 +1,266 @@
+package fr.ssp.solver;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+
+import java.util.Arrays;
+
+/**
+ * Solveur de Schroeppel-Shamir : temps O(2^(n/2)), mémoire O(2^(n/4)).
+ *
+ * Les éléments sont coupés en quatre quarts A, B, C, D dont les sommes sont
+ * énumérées triées (avec leurs masques) dans des tableaux primitifs. Les
+ * sommes de A+B sont produites paresseusement par ordre croissant grâce à un
+ * tas-min sur les couples (i, j), celles de C+D par ordre décroissant grâce à
+ * un tas-max, et les deux flux sont parcourus comme les deux pointeurs du
+ * meet in the middle sans jamais matérialiser les 2^(n/2) sommes.
+ */
+public class SchroeppelShamirSolver extends SSPSolver {
+
+  private static final int MAX_QUARTER = 30;
+
+  public SchroeppelShamirSolver(long target, long[] original, SubsetFactory factory) {
+    super(target, original, factory);
+    if ((original.length + 3) / 4 > MAX_QUARTER)
+      throw new IllegalArgumentException("Too many elements for Schroeppel-Shamir (max " + 4 * MAX_QUARTER + ")");
+  }
+
+  /**
+   * Retourne les solutions, ou null si la cible n'est pas atteignable
+   */
+  @Override
+  protected Subset search() {
+    int n = original.length;
+    int b = n / 4;
+    int c = n / 2;
+    int d = c + (n - c) / 2;
+    SortedSums A = new SortedSums(original, 0, b);
+    SortedSums B = new SortedSums(original, b, c);
+    SortedSums C = new SortedSums(original, c, d);
+    SortedSums D = new SortedSums(original, d, n);
+
+    // flux croissant des sommes A+B (tas-min), flux décroissant des sommes C+D
+    // (tas-min sur les sommes opposées)
+    PairHeap low = new PairHeap(A.size());
+    for (int i = 0; i < A.size(); i++)
+      low.push(A.sums[i] + B.sums[0], i, 0);
+    PairHeap high = new PairHeap(C.size());
+    int last = D.size() - 1;
+    for (int k = 0; k < C.size(); k++)
+      high.push(-(C.sums[k] + D.sums[last]), k, last);
+    stats.state(A.size() + B.size() + C.size() + D.size() + low.size + high.size);
+
+    Subset solutions = null;
+    int[] runLow = new int[16];
+    int[] runHigh = new int[16];
+    while (low.size > 0 && high.size > 0 && !checkpoint()) {
+      long x = low.topKey();
+      long y = -high.topKey();
+      long sum = x + y;
+      if (sum < target) {
+        advanceLow(low, A, B);
+      } else if (sum > target) {
+        advanceHigh(high, C, D);
+      } else {
+        // toutes les paires de même somme de chaque côté : une suite peut
+        // compter O(2^(n/2)) paires, elle est donc elle aussi interruptible
+        int countLow = 0;
+        while (low.size > 0 && low.topKey() == x) {
+          if (checkpoint())
+            return solutions;
+          if (countLow == runLow.length)
+            runLow = Arrays.copyOf(runLow, 2 * countLow);
+          runLow[countLow++] = low.topFirst();
+          runLow[countLow++] = low.topSecond();
+          advanceLow(low, A, B);
+        }
+        int countHigh = 0;
+        while (high.size > 0 && -high.topKey() == y) {
+          if (checkpoint())
+            return solutions;
+          if (countHigh == runHigh.length)
+            runHigh = Arrays.copyOf(runHigh, 2 * countHigh);
+          runHigh[countHigh++] = high.topFirst();
+          runHigh[countHigh++] = high.topSecond();
+          advanceHigh(high, C, D);
+        }
+
+        for (int p = 0; p < countLow; p += 2) {
+          Subset partial = extend(createSubset(), A.masks[runLow[p]], 0);
+          partial = extend(partial, B.masks[runLow[p + 1]], b);
+          for (int q = 0; q < countHigh; q += 2) {
+            if (checkpoint())
+              return solutions;
+            Subset solution = extend(partial, C.masks[runHigh[q]], c);
+            solution = extend(solution, D.masks[runHigh[q + 1]], d);
+            stats.solutionsFound++;
+            if (solutions == null) {
+              solutions = createSubset();
+              solutions.clone(solution);
+            } else {
+              solutions.encapsulate(solution);
+            }
+            if (satisfied())
+              return solutions;
+          }
+        }
+      }
+    }
+    return solutions;
+  }
+
+  /**
+   * remplace le minimum (i, j) du flux A+B par (i, j + 1)
+   */
+  private static void advanceLow(PairHeap low, SortedSums A, SortedSums B) {
+    int i = low.topFirst();
+    int j = low.topSecond() + 1;
+    if (j < B.size())
+      low.replaceTop(A.sums[i] + B.sums[j], i, j);
+    else
+      low.pop();
+  }
+
+  /**
+   * remplace le maximum (k, l) du flux C+D par (k, l - 1)
+   */
+  private static void advanceHigh(PairHeap high, SortedSums C, SortedSums D) {
+    int k = high.topFirst();
+    int l = high.topSecond() - 1;
+    if (l >= 0)
+      high.replaceTop(-(C.sums[k] + D.sums[l]), k, l);
+    else
+      high.pop();
+  }
+
+  /**
+   * ajoute à subset les éléments original[offset + b] pour chaque bit b du
+   * masque
+   */
+  private Subset extend(Subset subset, int mask, int offset) {
+    while (mask != 0) {
+      subset = createSubset(subset, original[offset + Integer.numberOfTrailingZeros(mask)]);
+      mask &= mask - 1;
+    }
+    return subset;
+  }
+
+  /**
+   * Sommes triées de tous les sous-ensembles de values[from..to), avec le
+   * masque (relatif à from) de chacun. Construites par fusions successives de
+   * L et L + v, sans tri.
+   */
+  private static final class SortedSums {
+    final long[] sums;
+    final int[] masks;
+
+    SortedSums(long[] values, int from, int to) {
+      int size = 1 << (to - from);
+      long[] sums = new long[size];
+      int[] masks = new int[size];
+      long[] nextSums = new long[size];
+      int[] nextMasks = new int[size];
+      int count = 1;
+      for (int bit = 0; bit < to - from; bit++) {
+        long v = values[from + bit];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < count || j < count) {
+          if (j == count || (i < count && sums[i] <= sums[j] + v)) {
+            nextSums[k] = sums[i];
+            nextMasks[k++] = masks[i++];
+          } else {
+            nextSums[k] = sums[j] + v;
+            nextMasks[k++] = masks[j++] | (1 << bit);
+          }
+        }
+        long[] s = sums;
+        sums = nextSums;
+        nextSums = s;
+        int[] m = masks;
+        masks = nextMasks;
+        nextMasks = m;
+        count = k;
+      }
+      this.sums = sums;
+      this.masks = masks;
+    }
+
+    int size() {
+      return this.sums.length;
+    }
+  }
+
+  /**
+   * Tas-min de couples (first, second) indexés par une clé long, en tableaux
+   * primitifs parallèles.
+   */
+  private static final class PairHeap {
+    private final long[] keys;
+    private final int[] firsts;
+    private final int[] seconds;
+    int size;
+
+    PairHeap(int capacity) {
+      this.keys = new long[capacity];
+      this.firsts = new int[capacity];
+      this.seconds = new int[capacity];
+    }
+
+    long topKey() {
+      return this.keys[0];
+    }
+
+    int topFirst() {
+      return this.firsts[0];
+    }
+
+    int topSecond() {
+      return this.seconds[0];
+    }
+
+    void push(long key, int first, int second) {
+      int i = this.size++;
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (this.keys[parent] <= key)
+          break;
+        set(i, this.keys[parent], this.firsts[parent], this.seconds[parent]);
+        i = parent;
+      }
+      set(i, key, first, second);
+    }
+
+    void pop() {
+      this.size--;
+      if (this.size > 0)
+        siftDown(this.keys[this.size], this.firsts[this.size], this.seconds[this.size]);
+    }
+
+    void replaceTop(long key, int first, int second) {
+      siftDown(key, first, second);
+    }
+
+    private void siftDown(long key, int first, int second) {
+      int i = 0;
+      int half = this.size >>> 1;
+      while (i < half) {
+        int child = 2 * i + 1;
+        if (child + 1 < this.size && this.keys[child + 1] < this.keys[child])
+          child++;
+        if (key <= this.keys[child])
+          break;
+        set(i, this.keys[child], this.firsts[child], this.seconds[child]);
+        i = child;
+      }
+      set(i, key, first, second);
+    }
+
+    private void set(int i, long key, int first, int second) {
+      this.keys[i] = key;
+      this.firsts[i] = first;
+      this.seconds[i] = second;
+    }
+  }
+}
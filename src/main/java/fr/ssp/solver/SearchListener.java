@@ -0,0 +1,43 @@
+package fr.ssp.solver;
+
+import fr.ssp.api.Subset;
+
+/**
+ * Points d'observation de la recherche arborescente (Branch and Prune).
+ *
+ * Un solveur sans écouteur attaché ne paie qu'un test de nullité par nœud ;
+ * toutes les méthodes ont une implémentation vide par défaut.
+ */
+public interface SearchListener {
+
+  /**
+   * Appelé à l'entrée d'un nœud
+   *
+   * @param index      indice du prochain élément à décider
+   * @param partialSum somme partielle courante
+   * @param remaining  somme des éléments restant à décider
+   */
+  default void nodeEntered(int index, long partialSum, long remaining) {
+  }
+
+  /**
+   * Appelé quand un nœud est élagué par les bornes
+   */
+  default void nodePruned(int index, long partialSum, long remaining) {
+  }
+
+  /**
+   * Appelé quand une solution est trouvée
+   *
+   * @param index    profondeur à laquelle la solution est trouvée
+   * @param solution le sous-ensemble partiel atteignant la cible
+   */
+  default void solutionFound(int index, Subset solution) {
+  }
+
+  /**
+   * Appelé quand tous les éléments ont été décidés sans atteindre la cible
+   */
+  default void leafReached(int index, long partialSum) {
+  }
+}
@@ -0,0 +1,165 @@
+package fr.ssp.solver;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Comptage des solutions sans construire aucun Subset.
+ *
+ * On compte les sous-ensembles d'indices de somme égale à la cible par une
+ * programmation dynamique primitive sur les sommes : tableau long[target + 1]
+ * quand les valeurs sont positives et la cible raisonnable (temps O(n *
+ * target)), table creuse des sommes encore compatibles avec la cible sinon
+ * (CountTable, sans boxing). Au premier dépassement d'un compteur long, la
+ * couche courante passe en BigInteger et le calcul reprend là où il s'est
+ * arrêté.
+ */
+public class SolutionCounter {
+
+  /**
+   * taille maximale du tableau dense (en nombre de sommes)
+   */
+  private static final long MAX_DENSE = 1L << 24;
+
+  private final long target;
+  private final long[] values;
+
+  public SolutionCounter(long target, long[] values) {
+    if (values == null)
+      throw new IllegalArgumentException("Values array cannot be null");
+    this.target = target;
+    this.values = values.clone();
+  }
+
+  /**
+   * Nombre de sous-ensembles (d'indices) dont la somme vaut la cible
+   * 
+   * @return le nombre de solutions
+   */
+  public BigInteger count() {
+    boolean nonnegative = true;
+    for (long v : this.values)
+      nonnegative &= v >= 0;
+    if (nonnegative && this.target < 0)
+      return BigInteger.ZERO;
+    if (nonnegative && this.target < MAX_DENSE)
+      return dense();
+    return sparse();
+  }
+
+  /**
+   * compteurs long ; au premier dépassement, le tableau est converti en
+   * BigInteger et la valeur en cours est terminée sur la copie
+   */
+  private BigInteger dense() {
+    int t = (int) this.target;
+    long[] counts = new long[t + 1];
+    counts[0] = 1;
+    BigInteger[] big = null;
+    for (long v : this.values) {
+      if (v > t)
+        continue;
+      // v = 0 : counts[s] += counts[s] double chaque compteur
+      int w = (int) v;
+      int s = t;
+      if (big == null) {
+        for (; s >= w; s--) {
+          long c = counts[s] + counts[s - w];
+          if (c < 0) {
+            big = promote(counts);
+            counts = null;
+            break;
+          }
+          counts[s] = c;
+        }
+      }
+      if (big != null) {
+        for (; s >= w; s--)
+          big[s] = big[s].add(big[s - w]);
+      }
+    }
+    return big == null ? BigInteger.valueOf(counts[t]) : big[t];
+  }
+
+  private static BigInteger[] promote(long[] counts) {
+    BigInteger[] big = new BigInteger[counts.length];
+    for (int s = 0; s < counts.length; s++)
+      big[s] = BigInteger.valueOf(counts[s]);
+    return big;
+  }
+
+  /**
+   * valeurs négatives ou cible trop grande : table des sommes partielles
+   * compatibles avec la cible compte tenu des éléments restants
+   */
+  private BigInteger sparse() {
+    long positive = 0; // somme des valeurs positives restantes
+    long negative = 0; // somme des valeurs négatives restantes
+    for (long v : this.values) {
+      if (v > 0)
+        positive += v;
+      else
+        negative += v;
+    }
+
+    CountTable counts = new CountTable(1);
+    counts.add(0, 1);
+    for (int k = 0; k < this.values.length; k++) {
+      long v = this.values[k];
+      long restPositive = v > 0 ? positive - v : positive;
+      long restNegative = v > 0 ? negative : negative - v;
+      long lb = this.target - restPositive;
+      long ub = this.target - restNegative;
+
+      CountTable next = new CountTable(2 * counts.size());
+      for (int i = 0; i < counts.size(); i++) {
+        long sum = counts.keyAt(i);
+        long c = counts.countAt(i);
+        long with = sum + v;
+        if ((lb <= sum && sum <= ub && !next.add(sum, c))
+            || (lb <= with && with <= ub && !next.add(with, c)))
+          return sparseBig(promote(counts), k, positive, negative);
+      }
+      counts = next;
+      positive = restPositive;
+      negative = restNegative;
+    }
+    return BigInteger.valueOf(counts.get(this.target));
+  }
+
+  private static Map<Long, BigInteger> promote(CountTable counts) {
+    Map<Long, BigInteger> big = new HashMap<>(2 * counts.size());
+    for (int i = 0; i < counts.size(); i++)
+      big.put(counts.keyAt(i), BigInteger.valueOf(counts.countAt(i)));
+    return big;
+  }
+
+  /**
+   * suite de sparse() en BigInteger, à partir de la valeur d'indice from
+   * (positive et negative : sommes restantes avant elle)
+   */
+  private BigInteger sparseBig(Map<Long, BigInteger> counts, int from, long positive, long negative) {
+    for (int k = from; k < this.values.length; k++) {
+      long v = this.values[k];
+      if (v > 0)
+        positive -= v;
+      else
+        negative -= v;
+      long lb = this.target - positive;
+      long ub = this.target - negative;
+
+      Map<Long, BigInteger> next = new HashMap<>(2 * counts.size());
+      for (Map.Entry<Long, BigInteger> entry : counts.entrySet()) {
+        long sum = entry.getKey();
+        if (lb <= sum && sum <= ub)
+          next.merge(sum, entry.getValue(), BigInteger::add);
+        long with = sum + v;
+        if (lb <= with && with <= ub)
+          next.merge(with, entry.getValue(), BigInteger::add);
+      }
+      counts = next;
+    }
+    return counts.getOrDefault(this.target, BigInteger.ZERO);
+  }
+}
@@ -0,0 +1,15 @@
+package fr.ssp.solver;
+
+/**
+ * Ce que la résolution doit produire.
+ */
+public enum SolveMode {
+  /**
+   * toutes les solutions
+   */
+  ALL,
+  /**
+   * une seule solution (témoin) : la recherche s'arrête au premier succès
+   */
+  FIRST
+}
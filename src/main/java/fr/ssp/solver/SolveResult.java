@@ -0,0 +1,63 @@
+package fr.ssp.solver;
+
+import fr.ssp.api.Subset;
+
+/**
+ * Résultat d'une résolution bornée : son statut, les solutions trouvées
+ * (toutes si la résolution est complète, celles trouvées jusque-là sinon) et
+ * ses statistiques.
+ */
+public final class SolveResult {
+
+  /**
+   * Comment la résolution s'est terminée
+   */
+  public enum Status {
+    COMPLETE,
+    TIMED_OUT,
+    CANCELLED
+  }
+
+  private final Status status;
+  private final Subset solutions;
+  private final SolveStats stats;
+
+  public SolveResult(Status status, Subset solutions, SolveStats stats) {
+    if (status == null)
+      throw new IllegalArgumentException("Status cannot be null");
+    this.status = status;
+    this.solutions = solutions;
+    this.stats = stats;
+  }
+
+  public Status getStatus() {
+    return this.status;
+  }
+
+  /**
+   * @return true si la recherche a été menée à son terme
+   */
+  public boolean isComplete() {
+    return this.status == Status.COMPLETE;
+  }
+
+  /**
+   * Les solutions trouvées, avec la même convention que le solveur pour
+   * l'absence de solution (Subset vide ou null)
+   */
+  public Subset getSolutions() {
+    return this.solutions;
+  }
+
+  public SolveStats getStats() {
+    return this.stats;
+  }
+
+  @Override
+  public String toString() {
+    String s = "SolveResult(" + this.status;
+    if (this.solutions != null)
+      s = s + ", " + this.solutions.show();
+    return s + ")";
+  }
+}
@@ -0,0 +1,147 @@
+package fr.ssp.solver;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Statistiques d'une résolution : nœuds explorés et élagués (recherche
+ * arborescente), taille de l'état par couche (programmation dynamique), temps
+ * réel, temps CPU et octets alloués par le thread qui résout.
+ *
+ * Le temps CPU et les allocations sont lus via com.sun.management.ThreadMXBean
+ * et valent -1 quand la JVM ne les fournit pas.
+ */
+public class SolveStats {
+
+  private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+  long nodesExpanded;
+  long nodesPruned;
+  long solutionsFound;
+  private int[] layerSizes = new int[0];
+  private int layers;
+  private long peakStateSize;
+
+  private long wallNanos;
+  private long cpuNanos = -1;
+  private long allocatedBytes = -1;
+
+  private long wallStart;
+  private long cpuStart;
+  private long allocStart;
+
+  private static com.sun.management.ThreadMXBean threadBean() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean)
+      return (com.sun.management.ThreadMXBean) bean;
+    return null;
+  }
+
+  void start() {
+    this.cpuStart = cpuTime();
+    this.allocStart = allocatedBytes();
+    this.wallStart = System.nanoTime();
+  }
+
+  void stop() {
+    this.wallNanos = System.nanoTime() - this.wallStart;
+    long cpu = cpuTime();
+    if (cpu >= 0 && this.cpuStart >= 0)
+      this.cpuNanos = cpu - this.cpuStart;
+    long alloc = allocatedBytes();
+    if (alloc >= 0 && this.allocStart >= 0)
+      this.allocatedBytes = alloc - this.allocStart;
+  }
+
+  /**
+   * enregistre la taille de l'état à la fin d'une couche (un élément traité)
+   */
+  void layer(int size) {
+    if (this.layers == this.layerSizes.length)
+      this.layerSizes = Arrays.copyOf(this.layerSizes, Math.max(8, 2 * this.layers));
+    this.layerSizes[this.layers++] = size;
+    state(size);
+  }
+
+  /**
+   * enregistre une taille d'état (nombre d'entrées ou de mots)
+   */
+  void state(long size) {
+    if (size > this.peakStateSize)
+      this.peakStateSize = size;
+  }
+
+  private static long cpuTime() {
+    if (THREADS == null || !THREADS.isCurrentThreadCpuTimeSupported())
+      return -1;
+    return THREADS.getCurrentThreadCpuTime();
+  }
+
+  private static long allocatedBytes() {
+    if (THREADS == null || !THREADS.isThreadAllocatedMemorySupported() || !THREADS.isThreadAllocatedMemoryEnabled())
+      return -1;
+    return THREADS.getCurrentThreadAllocatedBytes();
+  }
+
+  /**
+   * nombre de nœuds visités par la recherche arborescente
+   */
+  public long getNodesExpanded() {
+    return this.nodesExpanded;
+  }
+
+  /**
+   * nombre de nœuds élagués par satisfiesBounds
+   */
+  public long getNodesPruned() {
+    return this.nodesPruned;
+  }
+
+  /**
+   * nombre de solutions rencontrées pendant la recherche
+   */
+  public long getSolutionsFound() {
+    return this.solutionsFound;
+  }
+
+  /**
+   * taille de l'état (nombre de sommes conservées) après chaque couche
+   */
+  public int[] getLayerSizes() {
+    return Arrays.copyOf(this.layerSizes, this.layers);
+  }
+
+  /**
+   * plus grande taille d'état observée
+   */
+  public long getPeakStateSize() {
+    return this.peakStateSize;
+  }
+
+  public long getWallNanos() {
+    return this.wallNanos;
+  }
+
+  /**
+   * temps CPU du thread, ou -1 si non disponible
+   */
+  public long getCpuNanos() {
+    return this.cpuNanos;
+  }
+
+  /**
+   * octets alloués par le thread, ou -1 si non disponible
+   */
+  public long getAllocatedBytes() {
+    return this.allocatedBytes;
+  }
+
+  @Override
+  public String toString() {
+    return "SolveStats(nodes = " + this.nodesExpanded + "; pruned = " + this.nodesPruned
+        + "; solutions = " + this.solutionsFound + "; peakState = " + this.peakStateSize
+        + "; wall = " + this.wallNanos / 1_000_000 + "ms; cpu = "
+        + (this.cpuNanos < 0 ? "n/a" : this.cpuNanos / 1_000_000 + "ms") + "; allocated = "
+        + (this.allocatedBytes < 0 ? "n/a" : this.allocatedBytes + "B") + ")";
+  }
+}
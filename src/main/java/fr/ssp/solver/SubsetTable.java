@@ -0,0 +1,107 @@
+package fr.ssp.solver;
+
+import fr.ssp.api.Subset;
+
+import java.util.Arrays;
+
+/**
+ * Table somme -> sous-ensemble de la programmation dynamique, sans boxing : les
+ * clés et les valeurs sont rangées dans deux tableaux parallèles, dans l'ordre
+ * d'insertion (parcours en un seul passage par indice), et un index à
+ * adressage ouvert (sondage linéaire, facteur de charge 1/2) retrouve l'indice
+ * d'une somme.
+ */
+final class SubsetTable {
+
+  private long[] keys;
+  private Subset[] values;
+  private int[] slots; // indice + 1, 0 = vide
+  private int size;
+
+  /**
+   * @param expected nombre d'entrées prévu (la table grandit au-delà)
+   */
+  SubsetTable(int expected) {
+    int capacity = Math.max(expected, 4);
+    this.keys = new long[capacity];
+    this.values = new Subset[capacity];
+    this.slots = new int[Integer.highestOneBit(2 * capacity - 1) << 1];
+  }
+
+  int size() {
+    return this.size;
+  }
+
+  long keyAt(int index) {
+    return this.keys[index];
+  }
+
+  Subset valueAt(int index) {
+    return this.values[index];
+  }
+
+  void setValueAt(int index, Subset value) {
+    this.values[index] = value;
+  }
+
+  /**
+   * indice de la somme, ou -1 si elle est absente
+   */
+  int indexOf(long key) {
+    int mask = this.slots.length - 1;
+    for (int slot = spread(key) & mask;; slot = (slot + 1) & mask) {
+      int i = this.slots[slot] - 1;
+      if (i < 0 || this.keys[i] == key)
+        return i;
+    }
+  }
+
+  Subset get(long key) {
+    int i = indexOf(key);
+    return i < 0 ? null : this.values[i];
+  }
+
+  /**
+   * ajoute une somme absente de la table
+   *
+   * @return son indice
+   */
+  int add(long key, Subset value) {
+    if (this.size == this.keys.length) {
+      this.keys = Arrays.copyOf(this.keys, 2 * this.size);
+      this.values = Arrays.copyOf(this.values, 2 * this.size);
+    }
+    this.keys[this.size] = key;
+    this.values[this.size] = value;
+    this.size++;
+    if (2 * this.size > this.slots.length)
+      rehash();
+    else
+      insert(this.size - 1);
+    return this.size - 1;
+  }
+
+  private void insert(int i) {
+    int mask = this.slots.length - 1;
+    int slot = spread(this.keys[i]) & mask;
+    while (this.slots[slot] != 0)
+      slot = (slot + 1) & mask;
+    this.slots[slot] = i + 1;
+  }
+
+  private void rehash() {
+    this.slots = new int[2 * this.slots.length];
+    for (int i = 0; i < this.size; i++)
+      insert(i);
+  }
+
+  /**
+   * mélange des bits de la somme (finaliseur de MurmurHash3), partagé avec
+   * CountTable
+   */
+  static int spread(long key) {
+    key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+    key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return (int) (key ^ (key >>> 33));
+  }
+}
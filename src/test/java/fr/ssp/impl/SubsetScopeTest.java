@@ -0,0 +1,83 @@
+package fr.ssp.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import fr.ssp.api.Subset;
+import fr.ssp.solver.DynamicProgrammingSolver;
+import fr.ssp.solver.SolutionCounter;
+
+/**
+ * Tests pour les portées de création et la table d'unicité de SubsetV2
+ */
+public class SubsetScopeTest {
+
+  @Test
+  public void testInterning() {
+    SubsetScope scope = SubsetFactory.V2.newScope();
+    Subset root = scope.intern(scope.createSubset());
+
+    // même parent et même valeur : un seul nœud une fois le premier conservé
+    Subset a = scope.intern(scope.createSubset(root, 3));
+    assertSame(a, scope.createSubset(root, 3));
+
+    // mêmes parents dans un autre ordre : même structure, un seul représentant
+    Subset one = scope.intern(scope.createSubset(root, 1));
+    Subset two = scope.intern(scope.createSubset(root, 2));
+    Subset merged = scope.encapsulate(scope.createSubset(one, 4), scope.createSubset(two, 3), Integer.MAX_VALUE);
+    Subset other = scope.encapsulate(scope.createSubset(two, 3), scope.createSubset(one, 4), Integer.MAX_VALUE);
+    assertSame(scope.intern(merged), scope.intern(other));
+    assertEquals(5, scope.size());
+
+    // même famille par d'autres parents : égaux, mais pas fusionnés
+    SubsetV2 elsewhere = new SubsetV2(new SubsetV2(1), 4);
+    elsewhere.encapsulate(new SubsetV2(new SubsetV2(2), 3));
+    assertEquals(merged, elsewhere);
+    assertNotSame(scope.intern(merged), scope.intern(elsewhere));
+    assertEquals(6, scope.size());
+
+    assertNotSame(scope.createSubset(root, 4), scope.createSubset(root, 4)); // non conservés
+  }
+
+  @Test
+  public void testSharedRepresentatives() {
+    SubsetScope scope = SubsetFactory.V2.newScope();
+    Subset root = scope.intern(scope.createSubset());
+    Subset five = scope.intern(scope.createSubset(root, 5));
+
+    // un représentant ne se modifie pas : la portée le copie
+    Subset extra = scope.createSubset(scope.createSubset(root, 1), 4);
+    assertThrows(IllegalStateException.class, () -> five.encapsulate(extra));
+    Subset both = scope.encapsulate(five, extra, Integer.MAX_VALUE);
+    assertNotSame(five, both);
+    assertEquals(1, five.getCardinality());
+    assertEquals(2, both.getCardinality());
+    assertSame(five, scope.encapsulate(five, scope.createSubset(root, 5), Integer.MAX_VALUE));
+
+    // detach rend un nœud modifiable à l'appelant
+    Subset result = scope.detach(five);
+    result.encapsulate(extra);
+    assertEquals(2, result.getCardinality());
+    assertEquals(1, five.getCardinality());
+  }
+
+  @Test
+  public void testPassThrough() {
+    SubsetScope scope = SubsetFactory.V1.newScope();
+    Subset root = scope.createSubset();
+    Subset a = scope.createSubset(root, 3);
+    assertSame(a, scope.intern(a));
+    assertEquals(0, scope.size());
+    assertTrue(a instanceof SubsetV1);
+  }
+
+  @Test
+  public void testDynamicProgrammingSolutionsUnchanged() {
+    long[] values = { 3, 5, 6, 7, 9, 11, 12, 14, 15, 17, 18, 20 };
+    for (long target = 20; target <= 60; target += 7) {
+      SubsetV2 dag = (SubsetV2) new DynamicProgrammingSolver(target, values, SubsetFactory.V2).solve();
+      long expected = new SolutionCounter(target, values).count().longValue();
+      assertEquals(expected, dag == null ? 0 : dag.stream().count(), "target " + target);
+    }
+  }
+}
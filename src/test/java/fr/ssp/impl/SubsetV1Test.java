@@ -55,4 +55,31 @@ public class SubsetV1Test {
 
     assertTrue(s4.equals(s5));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testForEachSolution() {
+    SubsetV1 s1 = new SubsetV1(5);
+    s1.encapsulate(new SubsetV1(new SubsetV1(3), 2));
+    int[] visits = { 0 };
+    s1.forEachSolution((buffer, length) -> {
+      long sum = 0;
+      for (int k = 0; k < length; k++)
+        sum += buffer[k];
+      assertEquals(5, sum);
+      visits[0]++;
+    });
+    assertEquals(2, visits[0]);
+  }
+
+  @Test
+  public void testEncapsulateWithLimit() {
+    SubsetV1 s1 = new SubsetV1(5);
+    SubsetV1 s2 = new SubsetV1(new SubsetV1(3), 2);
+    s2.encapsulate(new SubsetV1(new SubsetV1(4), 1));
+
+    s1.encapsulate(s2, 2);
+    assertEquals(2, s1.getCardinality());
+    s1.encapsulate(s2, 2);
+    assertEquals(2, s1.getCardinality());
+  }
+}
@@ -2,7 +2,17 @@ package fr.ssp.impl;
 
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+
+import fr.ssp.api.Subset;
+import fr.ssp.solver.BranchAndPruneSolver;
+import fr.ssp.solver.DynamicProgrammingSolver;
+import fr.ssp.solver.SolutionCounter;
 
 /**
  * Tests pour l'implémentation SubsetV2
@@ -63,4 +73,135 @@ public class SubsetV2Test {
     // Vérifier que la cardinalité est correcte après normalisation
     assertEquals(2, s1.getCardinality()); // {5}, {2,3}
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testStreamSolutions() {
+    long[] values = { 1, 2, 3, 4, 5 };
+    Set<List<Long>> expected = Set.of(List.of(5L), List.of(1L, 4L), List.of(2L, 3L));
+
+    Subset bp = new BranchAndPruneSolver(5, values, SubsetFactory.V2).solve();
+    Subset dp = new DynamicProgrammingSolver(5, values, SubsetFactory.V2).solve();
+    assertEquals(expected, sorted(((SubsetV2) bp).stream().collect(Collectors.toList())));
+    assertEquals(expected, sorted(((SubsetV2) dp).stream().collect(Collectors.toList())));
+
+    Set<List<Long>> visited = new HashSet<>();
+    dp.forEachSolution((buffer, length) -> visited.add(sorted(Arrays.copyOf(buffer, length))));
+    assertEquals(expected, visited);
+  }
+
+  @Test
+  public void testIteratorDeepChain() {
+    // chaîne de 1000 éléments : le parcours ne doit pas être récursif
+    SubsetV2 s = new SubsetV2();
+    for (long v = 1; v <= 1000; v++)
+      s = new SubsetV2(s, v);
+    Iterator<long[]> it = s.iterator();
+    assertTrue(it.hasNext());
+    assertEquals(1000, it.next().length);
+    assertFalse(it.hasNext());
+
+    assertEquals(1, new SubsetV2().stream().count()); // la famille {∅}
+  }
+
+  @Test
+  public void testFingerprints() {
+    // la même famille {1,4}, {2,3} construite dans deux ordres différents
+    SubsetV2 a = new SubsetV2(new SubsetV2(1), 4);
+    a.encapsulate(new SubsetV2(new SubsetV2(2), 3));
+    SubsetV2 b = new SubsetV2(new SubsetV2(3), 2);
+    b.encapsulate(new SubsetV2(new SubsetV2(4), 1));
+    assertEquals(a.getFingerprint(), b.getFingerprint());
+    assertTrue(a.sameFamily(b));
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+
+    // {1,4}, {5} : même somme, famille différente
+    SubsetV2 c = new SubsetV2(new SubsetV2(1), 4);
+    c.encapsulate(new SubsetV2(5));
+    assertFalse(a.sameFamily(c));
+
+    // les branches déjà présentes ne sont pas ajoutées
+    int cardinality = a.getCardinality();
+    a.encapsulate(new SubsetV2(new SubsetV2(2), 3));
+    assertEquals(cardinality, a.getCardinality());
+    assertTrue(a.containsValues(Set.of(1L, 2L, 3L, 4L)));
+    assertTrue(a.containsValues(Set.of(2L)));
+    assertFalse(a.containsValues(Set.of(7L)));
+  }
+
+  @Test
+  public void testSharedDag() {
+    // plusieurs milliards de chemins : hashCode, equals et getValues ne
+    // doivent pas les parcourir
+    long[] values = new long[40];
+    for (int i = 0; i < values.length; i++)
+      values[i] = i + 1;
+    SubsetV2 dag = (SubsetV2) new DynamicProgrammingSolver(410, values, SubsetFactory.V2).solve();
+    assertTimeoutPreemptively(java.time.Duration.ofSeconds(10), () -> {
+      assertEquals(40, dag.getValues().size());
+      SubsetV2 copy = new SubsetV2();
+      copy.clone(dag);
+      assertTrue(dag.sameFamily(copy));
+    });
+
+    // sur une petite instance, le DAG contient exactement les solutions
+    long[] small = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+    Subset dp = new DynamicProgrammingSolver(39, small, SubsetFactory.V2).solve();
+    assertEquals(new SolutionCounter(39, small).count().longValue(), ((SubsetV2) dp).stream().count());
+    assertTrue(((SubsetV2) dp).stream().allMatch(solution -> Arrays.stream(solution).distinct().count() == solution.length
+        && Arrays.stream(solution).sum() == 39));
+  }
+
+  @Test
+  public void testStructuralEquality() {
+    long[] values = { 1, 2, 3, 4, 5, 6, 7 };
+    Subset bp = new BranchAndPruneSolver(10, values, SubsetFactory.V2).solve();
+    assertEquals(bp, new BranchAndPruneSolver(10, values, SubsetFactory.V2).solve());
+    assertEquals(bp, new DynamicProgrammingSolver(10, values, SubsetFactory.V2).solve());
+    assertEquals(bp.hashCode(), new DynamicProgrammingSolver(10, values, SubsetFactory.V2).solve().hashCode());
+    assertNotEquals(bp, new BranchAndPruneSolver(11, values, SubsetFactory.V2).solve());
+
+    // {1,4} atteint par deux chemins n'est pas {1,4}
+    SubsetV2 once = new SubsetV2(new SubsetV2(1), 4);
+    SubsetV2 twice = new SubsetV2(new SubsetV2(1), 4);
+    twice.addSubset(new SubsetV2(4));
+    assertNotEquals(once, twice);
+    assertNotEquals(new SubsetV2(5), new SubsetV2(new SubsetV2(1), 4));
+  }
+
+  @Test
+  public void testParentSnapshot() {
+    // un parent modifié après le lien ne change pas la famille de l'enfant
+    SubsetV2 parent = new SubsetV2(2);
+    SubsetV2 child = new SubsetV2(parent, 3);
+    SubsetV2 expected = new SubsetV2(new SubsetV2(2), 3);
+    parent.encapsulate(new SubsetV2(new SubsetV2(-1), 3));
+    assertEquals(2, parent.getCardinality());
+    assertEquals(1, child.getSubsets().size());
+    assertEquals(expected, child);
+    assertEquals("5 =\n  (3,2)", child.toString());
+
+    // les instantanés ne se modifient pas
+    SubsetV2 snapshot = child.getSubsets().iterator().next();
+    assertThrows(IllegalStateException.class, () -> snapshot.encapsulate(new SubsetV2(new SubsetV2(-2), 4)));
+  }
+
+  @Test
+  public void testLayout() {
+    SubsetV2 chain = new SubsetV2(new SubsetV2(3), 2);
+    assertEquals("5 =\n  (2,3)", chain.toString());
+    assertEquals("  (2,3)", chain.toString("  ("));
+    assertEquals("0 =\n  ()", new SubsetV2().toString());
+  }
+
+  private static Set<List<Long>> sorted(List<long[]> solutions) {
+    Set<List<Long>> result = new HashSet<>();
+    for (long[] solution : solutions)
+      result.add(sorted(solution));
+    return result;
+  }
+
+  private static List<Long> sorted(long[] solution) {
+    return Arrays.stream(solution).sorted().boxed().collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,118 @@
+package fr.ssp.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.Set;
+
+/**
+ * Tests pour l'implémentation SubsetV3
+ */
+public class SubsetV3Test {
+
+  @Test
+  public void testBasicOperations() {
+    SubsetV3 s1 = new SubsetV3();
+    assertEquals(0, s1.getSum());
+    assertEquals(1, s1.getCardinality());
+
+    SubsetV3 s2 = new SubsetV3(5);
+    assertEquals(5, s2.getSum());
+    assertEquals(1, s2.getCardinality());
+
+    SubsetV3 s3 = new SubsetV3(s2, 3);
+    assertEquals(8, s3.getSum());
+    assertEquals(1, s3.getCardinality());
+
+    Set<Long> values = s3.getValues();
+    assertEquals(2, values.size());
+    assertTrue(values.contains(5L));
+    assertTrue(values.contains(3L));
+
+    assertThrows(IllegalArgumentException.class, () -> new SubsetV3(s3, 5));
+  }
+
+  @Test
+  public void testEncapsulate() {
+    SubsetV3 s1 = new SubsetV3(5);
+    SubsetV3 s2 = new SubsetV3(5);
+    s1.encapsulate(s2);
+    assertEquals(5, s1.getSum());
+    assertEquals(1, s1.getCardinality()); // Pas de doublon
+
+    SubsetV3 s3 = new SubsetV3(3);
+    SubsetV3 s4 = new SubsetV3(s3, 2); // s4 a une somme de 5
+    s1.encapsulate(s4);
+    assertEquals(5, s1.getSum());
+    assertEquals(2, s1.getCardinality()); // Un ensemble {5} et un ensemble {3,2}
+  }
+
+  @Test
+  public void testEquals() {
+    SubsetV3 s1 = new SubsetV3(5);
+    SubsetV3 s2 = new SubsetV3(5);
+    SubsetV3 s3 = new SubsetV3(3);
+
+    assertTrue(s1.equals(s2));
+    assertFalse(s1.equals(s3));
+
+    SubsetV3 s4 = new SubsetV3(s1, 3);
+    SubsetV3 s5 = new SubsetV3(s2, 3);
+
+    assertTrue(s4.equals(s5));
+    assertEquals(s4.hashCode(), s5.hashCode());
+
+    // mêmes valeurs ajoutées dans un ordre différent
+    SubsetV3 s6 = new SubsetV3(new SubsetV3(3), 5);
+    assertTrue(s4.equals(s6));
+    assertEquals(s4.hashCode(), s6.hashCode());
+  }
+
+  @Test
+  public void testBeyondOneWord() {
+    SubsetV3 s = new SubsetV3();
+    long sum = 0;
+    for (long v = 1; v <= 100; v++) {
+      s = new SubsetV3(s, v);
+      sum += v;
+    }
+    assertEquals(sum, s.getSum());
+    assertEquals(100, s.getValues().size());
+
+    SubsetV3 t = new SubsetV3(new SubsetV3(2000), 3050);
+    t.encapsulate(s);
+    assertEquals(2, t.getCardinality());
+    t.encapsulate(s);
+    assertEquals(2, t.getCardinality());
+  }
+
+  @Test
+  public void testEqualsWithoutSideEffects() {
+    // a tient sur un mot, b (même univers, même somme) sur deux
+    SubsetV3 root = new SubsetV3();
+    SubsetV3 a = new SubsetV3(root, 5);
+    SubsetV3 chain = root;
+    for (long v = 100; v < 163; v++)
+      chain = new SubsetV3(chain, v);
+    SubsetV3 b = new SubsetV3(new SubsetV3(root, 2), 3);
+
+    String before = a.toString();
+    int hash = a.hashCode();
+    assertFalse(a.equals(b));
+    assertFalse(b.equals(a));
+    assertEquals(before, a.toString());
+    assertEquals(hash, a.hashCode());
+
+    // sans table de dédoublonnage (clone) : equals ne la construit pas pour
+    // autant, et l'encapsulation suivante reste correcte
+    SubsetV3 c = new SubsetV3();
+    c.clone(a);
+    assertTrue(c.equals(a));
+    assertTrue(a.equals(c));
+    c.encapsulate(b);
+    c.encapsulate(b);
+    assertEquals(2, c.getCardinality());
+    assertTrue(c.contains(a));
+    assertTrue(c.contains(b));
+    assertFalse(a.contains(c));
+  }
+}
@@ -0,0 +1,88 @@
+package fr.ssp.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import fr.ssp.api.Subset;
+import fr.ssp.solver.BranchAndPruneSolver;
+import fr.ssp.solver.DynamicProgrammingSolver;
+
+/**
+ * Tests pour l'implémentation SubsetV4
+ */
+public class SubsetV4Test {
+
+  @Test
+  public void testBasicOperations() {
+    SubsetV4 s1 = new SubsetV4();
+    assertEquals(0, s1.getSum());
+    assertEquals(1, s1.getCardinality());
+
+    SubsetV4 s2 = new SubsetV4(5);
+    SubsetV4 s3 = new SubsetV4(s2, 3);
+    assertEquals(8, s3.getSum());
+    assertEquals(1, s3.getCardinality());
+    assertEquals(Set.of(3L, 5L), s3.getValues());
+
+    assertThrows(IllegalArgumentException.class, () -> new SubsetV4(s3, 5));
+    assertThrows(IllegalArgumentException.class, () -> new SubsetV4(null, 5));
+  }
+
+  @Test
+  public void testEqualsIgnoresInsertionOrder() {
+    SubsetV4 a = new SubsetV4(new SubsetV4(new SubsetV4(1), 4), 5);
+    SubsetV4 b = new SubsetV4(new SubsetV4(new SubsetV4(5), 1), 4);
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+
+    a.encapsulate(b);
+    assertEquals(1, a.getCardinality()); // Pas de doublon
+
+    SubsetV4 c = new SubsetV4(new SubsetV4(new SubsetV4(2), 3), 5);
+    a.encapsulate(c);
+    assertEquals(2, a.getCardinality());
+    assertNotEquals(a, b);
+    assertTrue(a.contains(b));
+    assertFalse(b.contains(a));
+
+    SubsetV4 copy = new SubsetV4();
+    copy.clone(a);
+    assertEquals(a, copy);
+    assertEquals(a.hashCode(), copy.hashCode());
+  }
+
+  @Test
+  public void testEncapsulateWithLimit() {
+    SubsetV4 a = new SubsetV4(6);
+    SubsetV4 b = new SubsetV4(new SubsetV4(2), 4);
+    b.encapsulate(new SubsetV4(new SubsetV4(1), 5));
+    a.encapsulate(b, 2);
+    assertEquals(2, a.getCardinality());
+  }
+
+  @Test
+  public void testSameSolutionsAsSubsetV1() {
+    long[] values = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+    for (long target : new long[] { 1, 13, 27, 39, 78 }) {
+      Subset v1 = new DynamicProgrammingSolver(target, values, SubsetFactory.V1).solve();
+      Subset dp = new DynamicProgrammingSolver(target, values, SubsetFactory.V4).solve();
+      Subset bp = new BranchAndPruneSolver(target, values, SubsetFactory.V4).solve();
+      assertEquals(solutions(v1), solutions(dp), "target " + target);
+      assertEquals(solutions(v1), solutions(bp), "target " + target);
+    }
+  }
+
+  private static Set<List<Long>> solutions(Subset subset) {
+    Set<List<Long>> result = new HashSet<>();
+    if (subset == null)
+      return result;
+    subset.forEachSolution((buffer, length) -> result
+        .add(Arrays.stream(Arrays.copyOf(buffer, length)).sorted().boxed().collect(Collectors.toList())));
+    return result;
+  }
+}
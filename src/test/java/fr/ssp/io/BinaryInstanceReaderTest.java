@@ -0,0 +1,125 @@
+package fr.ssp.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.ssp.SSP;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Tests pour le format binaire des instances
+ */
+public class BinaryInstanceReaderTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  public void testRoundTripWidths() throws IOException {
+    long[][] cases = {
+        { 1, -128, 127, 0 },
+        { 300, -32768, 32767 },
+        { 70000, Integer.MIN_VALUE, Integer.MAX_VALUE },
+        { Long.MIN_VALUE, Long.MAX_VALUE, 1L << 40 } };
+    int[] widths = { 1, 2, 4, 8 };
+    for (int c = 0; c < cases.length; c++) {
+      Path file = this.dir.resolve("instance" + c + ".bin");
+      BinaryInstanceWriter.write(file, new Instance(-42, cases[c]));
+      assertEquals(BinaryInstanceFormat.HEADER_SIZE + widths[c] * cases[c].length, Files.size(file));
+      assertTrue(BinaryInstanceReader.isBinary(file));
+      Instance instance = BinaryInstanceReader.read(file);
+      assertEquals(-42, instance.getTarget());
+      assertArrayEquals(cases[c], instance.getValues());
+    }
+  }
+
+  @Test
+  public void testLittleEndianLayout() throws IOException {
+    Path file = this.dir.resolve("instance.bin");
+    try (BinaryInstanceWriter writer = new BinaryInstanceWriter(file, 2, 7, 2)) {
+      writer.write(0x0102);
+      writer.write(-2);
+    }
+    ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals('S', bytes.get(0));
+    assertEquals('B', bytes.get(3));
+    assertEquals(1, bytes.get(4));
+    assertEquals(2, bytes.get(5));
+    assertEquals(2, bytes.getInt(8));
+    assertEquals(7, bytes.getLong(12));
+    assertEquals(0x02, bytes.get(20));
+    assertEquals(0x01, bytes.get(21));
+    assertEquals((short) -2, bytes.getShort(22));
+  }
+
+  @Test
+  public void testWriterErrors() throws IOException {
+    Path file = this.dir.resolve("instance.bin");
+    assertThrows(IllegalArgumentException.class, () -> new BinaryInstanceWriter(file, 3, 0, 3));
+    assertThrows(IllegalArgumentException.class, () -> new BinaryInstanceWriter(file, 0, 0, 8));
+
+    BinaryInstanceWriter writer = new BinaryInstanceWriter(file, 2, 0, 1);
+    assertThrows(IllegalArgumentException.class, () -> writer.write(128));
+    writer.write(1);
+    assertThrows(IllegalStateException.class, writer::close);
+
+    try (BinaryInstanceWriter full = new BinaryInstanceWriter(file, 1, 0, 1)) {
+      full.write(1);
+      assertThrows(IllegalStateException.class, () -> full.write(2));
+    }
+  }
+
+  @Test
+  public void testReaderErrors() throws IOException {
+    Path text = this.dir.resolve("instance.txt");
+    Files.write(text, "3 10\n1 2 3\n".getBytes());
+    assertFalse(BinaryInstanceReader.isBinary(text));
+    InstanceFormatException e = assertThrows(InstanceFormatException.class, () -> BinaryInstanceReader.read(text));
+    assertEquals(0, e.getOffset());
+
+    Path file = this.dir.resolve("instance.bin");
+    BinaryInstanceWriter.write(file, new Instance(10, new long[] { 1, 2, 3 }));
+    byte[] bytes = Files.readAllBytes(file);
+
+    Path truncated = this.dir.resolve("truncated.bin");
+    Files.write(truncated, java.util.Arrays.copyOf(bytes, bytes.length - 1));
+    e = assertThrows(InstanceFormatException.class, () -> BinaryInstanceReader.read(truncated));
+    assertEquals(bytes.length - 1, e.getOffset());
+
+    byte[] badWidth = bytes.clone();
+    badWidth[5] = 3;
+    Path corrupted = this.dir.resolve("corrupted.bin");
+    Files.write(corrupted, badWidth);
+    e = assertThrows(InstanceFormatException.class, () -> BinaryInstanceReader.read(corrupted));
+    assertEquals(5, e.getOffset());
+  }
+
+  @Test
+  public void testStreamingWriteAndSSP() throws IOException {
+    Path file = this.dir.resolve("large.bin");
+    int n = 200000;
+    Random random = new Random(3);
+    long[] values = new long[n];
+    try (BinaryInstanceWriter writer = new BinaryInstanceWriter(file, n, 123456789L, 4)) {
+      for (int i = 0; i < n; i++) {
+        values[i] = random.nextInt();
+        writer.write(values[i]);
+      }
+    }
+    Instance instance = BinaryInstanceReader.read(file);
+    assertArrayEquals(values, instance.getValues());
+
+    SSP ssp = new SSP(file.toString());
+    assertArrayEquals(values, ssp.original);
+
+    SSP adopted = new SSP(instance);
+    assertSame(instance.getValues(), adopted.original);
+  }
+}
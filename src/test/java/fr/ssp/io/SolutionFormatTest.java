@@ -0,0 +1,100 @@
+package fr.ssp.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import fr.ssp.SSP;
+import fr.ssp.api.Subset;
+import fr.ssp.impl.MultisetSubset;
+import fr.ssp.impl.SubsetFactory;
+import fr.ssp.impl.SubsetV1;
+import fr.ssp.impl.SubsetV2;
+import fr.ssp.solver.DynamicProgrammingSolver;
+import fr.ssp.solver.SolutionCounter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * Tests pour l'écriture des solutions
+ */
+public class SolutionFormatTest {
+
+  @Test
+  public void testFormats() throws IOException {
+    SubsetV1 solutions = new SubsetV1(new SubsetV1(3), 2);
+    SubsetV1 other = new SubsetV1(5);
+    solutions.encapsulate(other);
+
+    assertEquals(SolutionFormat.TEXT.format(solutions), solutions.toString());
+    assertTrue(solutions.toString().startsWith("5 = \n ("));
+
+    StringWriter csv = new StringWriter();
+    SolutionFormat.CSV.write(other, csv);
+    assertEquals("5\n", csv.toString());
+
+    assertEquals("{\"sum\":5,\"values\":[5]}\n", SolutionFormat.NDJSON.format(other));
+    assertEquals("{\"sum\":0,\"values\":[]}\n", SolutionFormat.NDJSON.format(new SubsetV1()));
+    assertThrows(IllegalArgumentException.class, () -> SolutionFormat.CSV.format(null));
+  }
+
+  @Test
+  public void testSubsetV2Layout() {
+    // le format TEXT est commun ; toString garde la mise en page de SubsetV2
+    SubsetV2 chain = new SubsetV2(new SubsetV2(3), 2);
+    assertEquals("5 = \n (2,3)", SolutionFormat.TEXT.format(chain));
+    assertEquals("5 =\n  (2,3)", chain.toString());
+    assertEquals("0 = \n ()", SolutionFormat.TEXT.format(new SubsetV2()));
+  }
+
+  @Test
+  public void testMultiset() {
+    // toString et TEXT écrivent les répétitions v^k, CSV et NDJSON chaque occurrence
+    MultisetSubset multiset = new MultisetSubset(new long[] { 1, 3 }, new int[] { 4, 2 });
+    assertEquals("10 = \n (1^4,3^2)", multiset.toString());
+    assertEquals(multiset.toString(), SolutionFormat.TEXT.format(multiset));
+    assertEquals("1,1,1,1,3,3\n", SolutionFormat.CSV.format(multiset));
+    assertEquals("{\"sum\":10,\"values\":[1,1,1,1,3,3]}\n", SolutionFormat.NDJSON.format(multiset));
+  }
+
+  @Test
+  public void testManySolutions() {
+    // plus d'un millier de solutions : le rendu doit rester linéaire
+    int n = 16;
+    long[] values = new long[n];
+    for (int i = 0; i < n; i++)
+      values[i] = i + 1;
+    long target = n * (n + 1) / 4;
+    long count = new SolutionCounter(target, values).count().longValueExact();
+    Subset solutions = new DynamicProgrammingSolver(target, values, SubsetFactory.V1).solve();
+    String csv = SolutionFormat.CSV.format(solutions);
+    assertEquals(count, csv.chars().filter(c -> c == '\n').count());
+    assertEquals(count, solutions.toString().chars().filter(c -> c == '(').count());
+  }
+
+  @Test
+  public void testWriterFailure() {
+    Writer failing = new Writer() {
+      @Override
+      public void write(char[] buffer, int offset, int length) throws IOException {
+        throw new IOException("disk full");
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    IOException e = assertThrows(IOException.class, () -> SolutionFormat.CSV.write(new SubsetV1(7), failing));
+    assertEquals("disk full", e.getMessage());
+  }
+
+  @Test
+  public void testShowIntegers() {
+    assertEquals("Original set = [4,-1,7]", new SSP(new long[] { 4, -1, 7 }, 3).showIntegers());
+  }
+}
@@ -0,0 +1,85 @@
+package fr.ssp.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.ssp.SSP;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Tests pour la lecture du format texte des instances
+ */
+public class TextInstanceReaderTest {
+
+  @TempDir
+  Path dir;
+
+  private Path write(String content) throws IOException {
+    Path file = this.dir.resolve("instance.txt");
+    Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+    return file;
+  }
+
+  @Test
+  public void testRead() throws IOException {
+    Instance instance = TextInstanceReader.read(write("5\n10\n6 5 1\r\n3\t4"));
+    assertEquals(10, instance.getTarget());
+    assertArrayEquals(new long[] { 6, 5, 1, 3, 4 }, instance.getValues());
+
+    instance = TextInstanceReader.read(write("3 -1 +2 -9223372036854775808 9223372036854775807 trailing"));
+    assertEquals(-1, instance.getTarget());
+    assertArrayEquals(new long[] { 2, Long.MIN_VALUE, Long.MAX_VALUE }, instance.getValues());
+  }
+
+  @Test
+  public void testErrorPositions() throws IOException {
+    InstanceFormatException e = assertThrows(InstanceFormatException.class,
+        () -> TextInstanceReader.read(write("3 10\n1 2x 3\n")));
+    assertEquals(2, e.getLine());
+    assertEquals(4, e.getColumn());
+    assertEquals(8, e.getOffset());
+
+    e = assertThrows(InstanceFormatException.class, () -> TextInstanceReader.read(write("2 7\n1 99999999999999999999\n")));
+    assertEquals(2, e.getLine());
+    assertEquals(3, e.getColumn());
+    assertTrue(e.getMessage().contains("out of range"));
+
+    assertThrows(InstanceFormatException.class, () -> TextInstanceReader.read(write("4 10\n1 2 3\n")));
+    assertThrows(InstanceFormatException.class, () -> TextInstanceReader.read(write("0 10\n")));
+    assertThrows(InstanceFormatException.class, () -> TextInstanceReader.read(write("")));
+    assertThrows(InstanceFormatException.class, () -> TextInstanceReader.read(write("2 5 - 3")));
+  }
+
+  @Test
+  public void testLargeFileAcrossBlocks() throws IOException {
+    Random R = new Random(18);
+    int n = 200_000;
+    long[] values = new long[n];
+    StringBuilder s = new StringBuilder();
+    s.append(n).append('\n').append(42).append('\n');
+    for (int i = 0; i < n; i++) {
+      values[i] = R.nextLong();
+      s.append(values[i]).append(i % 7 == 0 ? '\n' : ' ');
+    }
+    Instance instance = TextInstanceReader.read(write(s.toString()));
+    assertEquals(42, instance.getTarget());
+    assertArrayEquals(values, instance.getValues());
+  }
+
+  @Test
+  public void testSSPConstructor() throws IOException {
+    Path file = write("5 10 6 5 1 3 4\n");
+    SSP ssp = new SSP(file.toString());
+    assertArrayEquals(new long[] { 6, 5, 1, 3, 4 }, ssp.original);
+    assertEquals("SSP(n = 5; target = 10)", ssp.toString());
+
+    Path bad = write("5 10 6 5 1 3\n");
+    assertThrows(IllegalArgumentException.class, () -> new SSP(bad.toString()));
+  }
+}
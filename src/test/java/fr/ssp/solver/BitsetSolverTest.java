@@ -0,0 +1,79 @@
+package fr.ssp.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+
+import java.util.Random;
+
+/**
+ * Tests pour le solveur par bitset
+ */
+public class BitsetSolverTest {
+
+  @Test
+  public void testWitness() {
+    long[] values = { 6, 5, 1, 3, 4 };
+    long target = 10;
+
+    BitsetSolver solver = new BitsetSolver(target, values, SubsetFactory.V1);
+    int[] witness = solver.witness();
+    long sum = 0;
+    for (int i : witness)
+      sum += values[i];
+    assertEquals(target, sum);
+
+    Subset solution = solver.solve();
+    assertEquals(target, solution.getSum());
+    assertEquals(1, solution.getCardinality());
+  }
+
+  @Test
+  public void testUnreachable() {
+    long[] values = { 4, 8, 16 };
+    BitsetSolver solver = new BitsetSolver(7, values, SubsetFactory.V2);
+    assertFalse(solver.isReachable());
+    assertNull(solver.witness());
+    assertNull(solver.solve());
+  }
+
+  @Test
+  public void testAgreesWithDynamicProgramming() {
+    Random R = new Random(7);
+    for (int round = 0; round < 50; round++) {
+      long[] values = new long[12];
+      for (int i = 0; i < values.length; i++)
+        values[i] = 1 + 200L * i + R.nextInt(200);
+      long target = R.nextInt(3000);
+
+      Subset dp = new DynamicProgrammingSolver(target, values, SubsetFactory.V1).solve();
+      BitsetSolver solver = new BitsetSolver(target, values, SubsetFactory.V1);
+      assertEquals(dp != null, solver.isReachable());
+      Subset witness = solver.solve();
+      if (dp != null)
+        assertEquals(target, witness.getSum());
+      else
+        assertNull(witness);
+    }
+  }
+
+  @Test
+  public void testLargeTarget() {
+    int n = 2000;
+    long[] values = new long[n];
+    Random R = new Random(3);
+    long target = 0;
+    for (int i = 0; i < n; i++) {
+      values[i] = 1 + R.nextInt(5_000);
+      if (R.nextBoolean())
+        target += values[i];
+    }
+    int[] witness = new BitsetSolver(target, values, SubsetFactory.V1).witness();
+    long sum = 0;
+    for (int i : witness)
+      sum += values[i];
+    assertEquals(target, sum);
+  }
+}
@@ -5,6 +5,13 @@ import org.junit.jupiter.api.Test;
 
 import fr.ssp.api.Subset;
 import fr.ssp.impl.SubsetFactory;
+import fr.ssp.io.Instance;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Tests pour l'algorithme Branch and Prune
@@ -35,6 +42,18 @@ public class BranchAndPruneSolverTest {
     assertEquals(3, solution.getCardinality()); // {5}, {1,4}, {2,3}
   }
 
+  @Test
+  public void testWithSubsetV3() {
+    long[] values = { 1, 2, 3, 4, 5 };
+    long target = 5;
+
+    BranchAndPruneSolver solver = new BranchAndPruneSolver(target, values, SubsetFactory.V3);
+    Subset solution = solver.solve();
+
+    assertEquals(target, solution.getSum());
+    assertEquals(3, solution.getCardinality()); // {5}, {1,4}, {2,3}
+  }
+
   @Test
   public void testSpecificExample() {
     long[] values = { 6, 5, 1, 3, 4 };
@@ -53,4 +72,166 @@ public class BranchAndPruneSolverTest {
     // nombre de solutions
     assertEquals(solutionV1.getCardinality(), solutionV2.getCardinality());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testSearchListener() {
+    long[] values = { 1, 2, 3, 4, 5 };
+    int[] solutions = new int[1];
+
+    BranchAndPruneSolver solver = new BranchAndPruneSolver(5, values, SubsetFactory.V1);
+    solver.setSearchListener(new SearchListener() {
+      @Override
+      public void solutionFound(int index, Subset solution) {
+        assertEquals(5, solution.getSum());
+        solutions[0]++;
+      }
+    });
+    solver.solve();
+
+    assertEquals(3, solutions[0]);
+  }
+
+  @Test
+  public void testRingBufferTraceSink() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    long[] values = { 6, 5, 1, 3, 4 };
+
+    BranchAndPruneSolver solver = new BranchAndPruneSolver(10, values, SubsetFactory.V2);
+    try (RingBufferTraceSink sink = new RingBufferTraceSink(1024, new PrintStream(bytes, true, StandardCharsets.UTF_8))) {
+      solver.setSearchListener(sink);
+      solver.solve();
+    }
+
+    String trace = bytes.toString(StandardCharsets.UTF_8);
+    assertTrue(trace.startsWith("bpRec index=0"));
+    assertTrue(trace.contains("Solution trouvée! Somme=10"));
+  }
+
+  @Test
+  public void testRingBufferTraceSinkCharset() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    long[] values = { 6, 5, 1, 3, 4 };
+
+    BranchAndPruneSolver solver = new BranchAndPruneSolver(10, values, SubsetFactory.V2);
+    try (RingBufferTraceSink sink = new RingBufferTraceSink(1024, bytes, StandardCharsets.ISO_8859_1)) {
+      solver.setSearchListener(sink);
+      solver.solve();
+    }
+
+    assertTrue(bytes.toString(StandardCharsets.ISO_8859_1).contains("Solution trouvée! Somme=10"));
+    assertThrows(IllegalArgumentException.class, () -> new RingBufferTraceSink(16, bytes, null));
+  }
+
+  @Test
+  public void testSolveStats() {
+    long[] values = { 1, 2, 3, 4, 5 };
+
+    BranchAndPruneSolver solver = new BranchAndPruneSolver(5, values, SubsetFactory.V1);
+    solver.solve();
+    SolveStats stats = solver.getStats();
+
+    assertEquals(3, stats.getSolutionsFound());
+    assertTrue(stats.getNodesExpanded() > stats.getNodesPruned());
+    assertTrue(stats.getNodesPruned() > 0);
+    assertTrue(stats.getWallNanos() > 0);
+  }
+
+  @Test
+  public void testFirstMode() {
+    long[] values = { 1, 2, 3, 4, 5 };
+    long target = 5;
+
+    BranchAndPruneSolver solver = new BranchAndPruneSolver(target, values, SubsetFactory.V1);
+    solver.setMode(SolveMode.FIRST);
+    Subset solution = solver.solve();
+
+    assertEquals(target, solution.getSum());
+    assertEquals(1, solution.getCardinality());
+    assertEquals(1, solver.getStats().getSolutionsFound());
+
+    // arrêt au premier succès : moins de nœuds que la recherche complète
+    long firstNodes = solver.getStats().getNodesExpanded();
+    solver.setMode(SolveMode.ALL);
+    solver.solve();
+    assertTrue(firstNodes < solver.getStats().getNodesExpanded());
+  }
+
+  @Test
+  public void testLimit() {
+    long[] values = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+    long target = 15; // 20 solutions
+
+    for (SubsetFactory factory : SubsetFactory.values()) {
+      BranchAndPruneSolver solver = new BranchAndPruneSolver(target, values, factory);
+      solver.setLimit(3);
+      Subset solutions = solver.solve();
+
+      assertEquals(target, solutions.getSum());
+      assertEquals(3, solutions.getCardinality());
+    }
+    assertThrows(IllegalArgumentException.class, () -> new BranchAndPruneSolver(target, values, SubsetFactory.V1).setLimit(0));
+  }
+
+  @Test
+  public void testDeadline() {
+    long[] values = new long[40];
+    for (int i = 0; i < values.length; i++)
+      values[i] = 2 * (i + 1);
+    long target = 801; // impair : inatteignable, l'arbre est énorme
+
+    BranchAndPruneSolver solver = new BranchAndPruneSolver(target, values, SubsetFactory.V1);
+    SolveResult result = solver.solve(Deadline.after(20, TimeUnit.MILLISECONDS));
+    assertEquals(SolveResult.Status.TIMED_OUT, result.getStatus());
+    assertNotEquals(target, result.getSolutions().getSum());
+
+    solver.cancel();
+    assertEquals(SolveResult.Status.CANCELLED, solver.solve(Deadline.NONE).getStatus());
+
+    BranchAndPruneSolver small = new BranchAndPruneSolver(5, new long[] { 1, 2, 3, 4, 5 }, SubsetFactory.V1);
+    SolveResult complete = small.solve(Deadline.after(1, TimeUnit.MINUTES));
+    assertTrue(complete.isComplete());
+    assertEquals(3, complete.getSolutions().getCardinality());
+  }
+
+  @Test
+  public void testCancelFromAnotherThread() throws Exception {
+    long[] values = new long[40];
+    for (int i = 0; i < values.length; i++)
+      values[i] = 2 * (i + 1);
+    BranchAndPruneSolver solver = new BranchAndPruneSolver(801, values, SubsetFactory.V1);
+    Thread canceller = new Thread(() -> {
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        return;
+      }
+      solver.cancel();
+    });
+    canceller.start();
+    assertEquals(SolveResult.Status.CANCELLED, solver.solve(Deadline.NONE).getStatus());
+    canceller.join();
+  }
+
+  @Test
+  public void testSortedPruning() {
+    Random R = new Random(15);
+    for (int round = 0; round < 10; round++) {
+      Instance instance = RandomInstances.spread(R, 16, 7);
+      long target = instance.getTarget();
+      long[] values = instance.getValues();
+      BranchAndPruneSolver basic = new BranchAndPruneSolver(target, values, SubsetFactory.V1);
+      BranchAndPruneSolver sorted = new BranchAndPruneSolver(target, values, SubsetFactory.V1);
+      sorted.setSortedPruning(true);
+
+      Subset expected = basic.solve();
+      Subset solutions = sorted.solve();
+      assertEquals(expected, solutions);
+      assertTrue(sorted.getStats().getNodesExpanded() < basic.getStats().getNodesExpanded());
+    }
+
+    // valeurs négatives : repli sur l'ordre d'entrée
+    BranchAndPruneSolver negative = new BranchAndPruneSolver(2, new long[] { -1, 1, 2, 3 }, SubsetFactory.V1);
+    negative.setSortedPruning(true);
+    assertEquals(3, negative.solve().getCardinality());
+  }
+}
@@ -0,0 +1,46 @@
+package fr.ssp.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests pour la table somme -> nombre de solutions du comptage
+ */
+public class CountTableTest {
+
+  @Test
+  public void testAddAndLookup() {
+    CountTable table = new CountTable(2);
+    Map<Long, Long> expected = new HashMap<>();
+    Random R = new Random(25);
+    for (int k = 0; k < 10000; k++) {
+      long key = k % 3 == 0 ? -R.nextInt(1000) : (long) R.nextInt(1 << 10) << 20;
+      long count = R.nextInt(100) + 1;
+      assertTrue(table.add(key, count));
+      expected.merge(key, count, Long::sum);
+    }
+    assertEquals(expected.size(), table.size());
+    for (Map.Entry<Long, Long> entry : expected.entrySet())
+      assertEquals((long) entry.getValue(), table.get(entry.getKey()));
+    assertEquals(0, table.get(1));
+
+    // parcours par indice dans l'ordre d'insertion, chaque somme une fois
+    for (int i = 0; i < table.size(); i++)
+      assertEquals((long) expected.remove(table.keyAt(i)), table.countAt(i));
+    assertTrue(expected.isEmpty());
+  }
+
+  @Test
+  public void testOverflow() {
+    CountTable table = new CountTable(4);
+    assertTrue(table.add(3, Long.MAX_VALUE - 1));
+    assertTrue(table.add(3, 1));
+    assertFalse(table.add(3, 1));
+    assertEquals(Long.MAX_VALUE, table.get(3));
+    assertEquals(1, table.size());
+  }
+}
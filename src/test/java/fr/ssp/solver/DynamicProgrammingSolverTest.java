@@ -6,6 +6,13 @@ import org.junit.jupiter.api.Test;
 import fr.ssp.api.Subset;
 import fr.ssp.impl.SubsetFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Tests pour l'algorithme Dynamic Programming
  */
@@ -35,6 +42,18 @@ public class DynamicProgrammingSolverTest {
     // Note: DP avec SubsetV2 peut trouver moins de solutions
   }
 
+  @Test
+  public void testWithSubsetV3() {
+    long[] values = { 1, 2, 3, 4, 5 };
+    long target = 5;
+
+    DynamicProgrammingSolver solver = new DynamicProgrammingSolver(target, values, SubsetFactory.V3);
+    Subset solution = solver.solve();
+
+    assertEquals(target, solution.getSum());
+    assertEquals(3, solution.getCardinality()); // {5}, {1,4}, {2,3}
+  }
+
   @Test
   public void testSpecificExample() {
     long[] values = { 6, 5, 1, 3, 4 };
@@ -53,4 +72,129 @@ public class DynamicProgrammingSolverTest {
     System.out.println("DP - V1: " + solutionV1.getCardinality() + " solutions");
     System.out.println("DP - V2: " + solutionV2.getCardinality() + " solutions");
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testSolveStats() {
+    long[] values = { 1, 2, 3, 4, 5 };
+
+    DynamicProgrammingSolver solver = new DynamicProgrammingSolver(5, values, SubsetFactory.V1);
+    solver.solve();
+    SolveStats stats = solver.getStats();
+
+    int[] layers = stats.getLayerSizes();
+    assertEquals(values.length, layers.length);
+    int peak = 0;
+    for (int size : layers)
+      peak = Math.max(peak, size);
+    assertEquals(peak, stats.getPeakStateSize());
+    assertEquals(0, stats.getNodesExpanded());
+  }
+
+  @Test
+  public void testFirstMode() {
+    long[] values = { 1, 2, 3, 4, 5 };
+    long target = 5;
+
+    DynamicProgrammingSolver solver = new DynamicProgrammingSolver(target, values, SubsetFactory.V1);
+    solver.setMode(SolveMode.FIRST);
+    Subset solution = solver.solve();
+
+    assertEquals(target, solution.getSum());
+    assertEquals(1, solution.getCardinality());
+    assertEquals(1, solver.getStats().getSolutionsFound());
+
+    solver = new DynamicProgrammingSolver(16, values, SubsetFactory.V2);
+    solver.setMode(SolveMode.FIRST);
+    assertNull(solver.solve());
+  }
+
+  @Test
+  public void testLimit() {
+    long[] values = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+    long target = 15; // 20 solutions
+
+    for (SubsetFactory factory : SubsetFactory.values()) {
+      DynamicProgrammingSolver solver = new DynamicProgrammingSolver(target, values, factory);
+      solver.setLimit(3);
+      Subset solutions = solver.solve();
+
+      assertEquals(target, solutions.getSum());
+      assertEquals(3, solutions.getCardinality());
+    }
+    assertThrows(IllegalArgumentException.class, () -> new DynamicProgrammingSolver(target, values, SubsetFactory.V1).setLimit(0));
+  }
+
+  @Test
+  public void testDeadline() {
+    long[] values = { 1, 2, 3, 4, 5 };
+    DynamicProgrammingSolver solver = new DynamicProgrammingSolver(5, values, SubsetFactory.V1);
+
+    SolveResult result = solver.solve(Deadline.after(0, TimeUnit.MILLISECONDS));
+    assertEquals(SolveResult.Status.TIMED_OUT, result.getStatus());
+    assertEquals(0, result.getStats().getLayerSizes().length);
+
+    result = solver.solve(Deadline.after(1, TimeUnit.MINUTES));
+    assertTrue(result.isComplete());
+    assertEquals(3, result.getSolutions().getCardinality());
+  }
+
+  @Test
+  public void testTwoPhase() {
+    long[][] instances = { { 1, 2, 3, 4, 5 }, { 6, 5, 1, 3, 4 }, { 7, -3, 2, 9, -1, 4 }, { 3, 5, 8, 13, 21, 34 } };
+    long[] targets = { 0, 5, 10, 13, 100 };
+
+    for (SubsetFactory factory : SubsetFactory.values()) {
+      for (long[] values : instances) {
+        for (long target : targets) {
+          Subset expected = new DynamicProgrammingSolver(target, values, factory).solve();
+          DynamicProgrammingSolver solver = new DynamicProgrammingSolver(target, values, factory);
+          solver.setTwoPhase(true);
+          Subset solutions = solver.solve();
+
+          String context = factory + " " + Arrays.toString(values) + " -> " + target;
+          if (expected == null) {
+            assertNull(solutions, context);
+          } else {
+            assertEquals(target, solutions.getSum(), context);
+            assertEquals(solutionSet(expected), solutionSet(solutions), context);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testTwoPhaseLimitAndDeadline() {
+    long[] values = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+
+    for (SubsetFactory factory : SubsetFactory.values()) {
+      DynamicProgrammingSolver solver = new DynamicProgrammingSolver(15, values, factory);
+      solver.setTwoPhase(true);
+      solver.setLimit(3);
+      assertEquals(3, solver.solve().getCardinality());
+    }
+
+    DynamicProgrammingSolver solver = new DynamicProgrammingSolver(15, values, SubsetFactory.V1);
+    solver.setTwoPhase(true);
+    SolveResult result = solver.solve(Deadline.after(0, TimeUnit.MILLISECONDS));
+    assertEquals(SolveResult.Status.TIMED_OUT, result.getStatus());
+
+    result = solver.solve(Deadline.after(1, TimeUnit.MINUTES));
+    assertTrue(result.isComplete());
+    assertEquals(20, result.getSolutions().getCardinality());
+    assertEquals(values.length, result.getStats().getLayerSizes().length);
+  }
+
+  private static Set<List<Long>> solutionSet(Subset solutions) {
+    Set<List<Long>> set = new HashSet<>();
+    solutions.forEachSolution((values, length) -> {
+      long[] sorted = Arrays.copyOf(values, length);
+      Arrays.sort(sorted);
+      List<Long> solution = new ArrayList<>();
+      for (long value : sorted)
+        solution.add(value);
+      set.add(solution);
+    });
+    return set;
+  }
+}
@@ -0,0 +1,91 @@
+package fr.ssp.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.MultisetSubset;
+import fr.ssp.impl.SubsetFactory;
+
+import java.util.Random;
+
+/**
+ * Tests pour le prétraitement des instances
+ */
+public class InstanceReducerTest {
+
+  @Test
+  public void testReductions() {
+    // pgcd 3, 300 trop grand, puis 9, 24 et 60 forcés (marge 6), 6 trop grand
+    // et 3 forcé : il ne reste rien à chercher
+    long[] values = { 3, 6, 9, 24, 60, 300 };
+    InstanceReducer reducer = new InstanceReducer(96, values);
+
+    assertFalse(reducer.isInfeasible());
+    assertEquals(3, reducer.getGcd());
+    assertEquals(2, reducer.getDroppedCount());
+    assertEquals(4, reducer.getForcedCount());
+    assertEquals(0, reducer.getReducedSize());
+    assertEquals(0, reducer.getTarget());
+
+    Subset reduced = new BranchAndPruneSolver(reducer.getTarget(), reducer.getValues(), SubsetFactory.V1).solve();
+    Subset lifted = reducer.lift(reduced, SubsetFactory.V1);
+    assertEquals(new BranchAndPruneSolver(96, values, SubsetFactory.V1).solve(), lifted);
+  }
+
+  @Test
+  public void testInfeasible() {
+    InstanceReducer odd = new InstanceReducer(7, new long[] { 2, 4, 6 });
+    assertTrue(odd.isInfeasible());
+    assertNull(odd.lift(null, SubsetFactory.V1));
+
+    assertTrue(new InstanceReducer(100, new long[] { 1, 2, 3 }).isInfeasible());
+  }
+
+  @Test
+  public void testSameSolutionsAsDirectSolve() {
+    Random R = new Random(17);
+    for (int round = 0; round < 30; round++) {
+      int n = 6 + R.nextInt(8);
+      long scale = 1 + R.nextInt(4);
+      long[] values = new long[n];
+      long total = 0;
+      for (int i = 0; i < n; i++) {
+        values[i] = scale * (1 + 4L * i + R.nextInt(4));
+        total += values[i];
+      }
+      long target = scale * R.nextInt((int) (total / scale) + 1);
+
+      InstanceReducer reducer = new InstanceReducer(target, values);
+      Subset expected = new DynamicProgrammingSolver(target, values, SubsetFactory.V1).solve();
+      Subset reduced = reducer.isInfeasible() ? null
+          : new DynamicProgrammingSolver(reducer.getTarget(), reducer.getValues(), SubsetFactory.V1).solve();
+      assertEquals(expected, reducer.lift(reduced, SubsetFactory.V1), reducer.toString());
+    }
+  }
+
+  @Test
+  public void testComplement() {
+    long[] values = { 1, 2, 3, 4, 5, 6 };
+    InstanceReducer reducer = new InstanceReducer(12, values); // 21 - 12 = 9
+    assertTrue(reducer.isComplemented());
+    assertEquals(9, reducer.getTarget());
+
+    Subset reduced = new BranchAndPruneSolver(reducer.getTarget(), reducer.getValues(), SubsetFactory.V2).solve();
+    Subset lifted = reducer.lift(reduced, SubsetFactory.V2);
+    assertEquals(12, lifted.getSum());
+    assertEquals(new BranchAndPruneSolver(12, values, SubsetFactory.V2).solve().getCardinality(),
+        lifted.getCardinality());
+    assertTrue(reducer.toString().contains("complemented"));
+  }
+
+  @Test
+  public void testOneValuePerPosition() {
+    // chaque occurrence d'une valeur consomme sa propre position : {3, 3}
+    // ne se replie pas silencieusement sur le seul 3 de l'instance
+    InstanceReducer single = new InstanceReducer(6, new long[] { 3, 5, 6, 7 });
+    assertEquals(6, single.getTarget());
+    Subset twice = new MultisetSubset(new long[] { 3 }, new int[] { 2 });
+    assertThrows(IllegalArgumentException.class, () -> single.lift(twice, SubsetFactory.V2));
+  }
+}
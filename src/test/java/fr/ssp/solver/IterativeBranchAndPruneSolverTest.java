@@ -0,0 +1,72 @@
+package fr.ssp.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+import fr.ssp.impl.SubsetV1;
+import fr.ssp.io.Instance;
+
+import java.util.Random;
+
+/**
+ * Tests pour le Branch and Prune itératif
+ */
+public class IterativeBranchAndPruneSolverTest {
+
+  @Test
+  public void testSameSolutionsAsRecursive() {
+    Random R = new Random(5);
+    for (int round = 0; round < 10; round++) {
+      Instance instance = RandomInstances.spread(R, 14, 10);
+      long target = instance.getTarget();
+      long[] values = instance.getValues();
+
+      for (SubsetFactory factory : new SubsetFactory[] { SubsetFactory.V1, SubsetFactory.V2 }) {
+        BranchAndPruneSolver recursive = new BranchAndPruneSolver(target, values, factory);
+        IterativeBranchAndPruneSolver iterative = new IterativeBranchAndPruneSolver(target, values, factory);
+        Subset expected = recursive.solve();
+        Subset actual = iterative.solve();
+
+        assertEquals(RandomInstances.solutions(expected), RandomInstances.solutions(actual));
+        assertEquals(expected.getCardinality(), actual.getCardinality());
+        assertEquals(recursive.getStats().getNodesExpanded(), iterative.getStats().getNodesExpanded());
+        assertEquals(recursive.getStats().getNodesPruned(), iterative.getStats().getNodesPruned());
+      }
+    }
+  }
+
+  @Test
+  public void testDeepInstance() {
+    // n = 3000, cible = total - 1 : une seule solution (tout sauf 1), bornes
+    // serrées mais profondeur maximale
+    int n = 3000;
+    long[] values = new long[n];
+    long total = 0;
+    for (int i = 0; i < n; i++) {
+      values[i] = i + 1;
+      total += values[i];
+    }
+
+    Subset solution = new IterativeBranchAndPruneSolver(total - 1, values, SubsetFactory.V1).solve();
+
+    assertEquals(total - 1, solution.getSum());
+    assertEquals(1, solution.getCardinality());
+    assertEquals(n - 1, ((SubsetV1) solution).getValues().size());
+  }
+
+  @Test
+  public void testFirstMode() {
+    long[] values = { 1, 2, 3, 4, 5 };
+    long target = 5;
+
+    IterativeBranchAndPruneSolver solver = new IterativeBranchAndPruneSolver(target, values, SubsetFactory.V1);
+    solver.setMode(SolveMode.FIRST);
+    Subset solution = solver.solve();
+
+    assertEquals(target, solution.getSum());
+    assertEquals(1, solution.getCardinality());
+    assertEquals(1, solver.getStats().getSolutionsFound());
+  }
+}
@@ -0,0 +1,81 @@
+package fr.ssp.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+import fr.ssp.io.Instance;
+
+import java.util.Random;
+
+/**
+ * Tests pour le solveur meet in the middle
+ */
+public class MeetInTheMiddleSolverTest {
+
+  @Test
+  public void testSmallInstance() {
+    long[] values = { 1, 2, 3, 4, 5 };
+
+    Subset solution = new MeetInTheMiddleSolver(5, values, SubsetFactory.V1).solve();
+
+    assertEquals(5, solution.getSum());
+    assertEquals(3, solution.getCardinality()); // {5}, {1,4}, {2,3}
+  }
+
+  @Test
+  public void testSameSolutionsAsBranchAndPrune() {
+    Random R = new Random(9);
+    for (int round = 0; round < 10; round++) {
+      Instance instance = RandomInstances.spread(R, 15, 10);
+      long target = instance.getTarget();
+      long[] values = instance.getValues();
+
+      Subset expected = new BranchAndPruneSolver(target, values, SubsetFactory.V1).solve();
+      Subset actual = new MeetInTheMiddleSolver(target, values, SubsetFactory.V1).solve();
+
+      assertEquals(RandomInstances.solutions(expected), RandomInstances.solutions(actual));
+    }
+  }
+
+  @Test
+  public void testManyMasksPerSum() {
+    // 1..16 : chaque somme d'une moitié correspond à de nombreux masques, que
+    // group() doit tous retrouver
+    long[] values = new long[16];
+    for (int i = 0; i < values.length; i++)
+      values[i] = i + 1;
+
+    Subset solutions = new MeetInTheMiddleSolver(68, values, SubsetFactory.V4).solve();
+
+    assertEquals(new SolutionCounter(68, values).count().intValue(), RandomInstances.solutions(solutions).size());
+    assertEquals(RandomInstances.solutions(new DynamicProgrammingSolver(68, values, SubsetFactory.V4).solve()),
+        RandomInstances.solutions(solutions));
+  }
+
+  @Test
+  public void testWitnessWithHugeValues() {
+    Random R = new Random(1);
+    long[] values = new long[40];
+    long target = 0;
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 1 + (R.nextLong() >>> 24);
+      if (R.nextBoolean())
+        target += values[i];
+    }
+
+    MeetInTheMiddleSolver solver = new MeetInTheMiddleSolver(target, values, SubsetFactory.V1);
+    solver.setMode(SolveMode.FIRST);
+    Subset solution = solver.solve();
+
+    assertEquals(target, solution.getSum());
+    assertEquals(1, solution.getCardinality());
+  }
+
+  @Test
+  public void testUnreachable() {
+    long[] values = { 4, 8, 16, 32 };
+    assertNull(new MeetInTheMiddleSolver(7, values, SubsetFactory.V1).solve());
+  }
+}
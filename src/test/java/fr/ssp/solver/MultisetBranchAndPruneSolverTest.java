@@ -0,0 +1,87 @@
+package fr.ssp.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.MultisetSubset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests pour le Branch and Prune sur les multi-ensembles
+ */
+public class MultisetBranchAndPruneSolverTest {
+
+  @Test
+  public void testRepeatedValues() {
+    long[] values = { 2, 3, 2, 3, 2 };
+    MultisetBranchAndPruneSolver solver = new MultisetBranchAndPruneSolver(6, values);
+    MultisetSubset solutions = (MultisetSubset) solver.solve();
+
+    assertEquals(6, solutions.getSum());
+    assertEquals(2, solutions.getCardinality()); // {2,2,2}, {3,3}
+    assertEquals(new MultisetSubset(new long[] { 2, 3 }, new int[] { 3, 0 }),
+        new MultisetSubset(new long[] { 3, 2 }, new int[] { 0, 3 }));
+
+    List<String> expanded = new ArrayList<>();
+    solutions.forEachSolution((buffer, length) -> {
+      long[] solution = Arrays.copyOf(buffer, length);
+      Arrays.sort(solution);
+      expanded.add(Arrays.toString(solution));
+    });
+    expanded.sort(null);
+    assertEquals(List.of("[2, 2, 2]", "[3, 3]"), expanded);
+  }
+
+  @Test
+  public void testNoSymmetricBranches() {
+    long[] values = new long[20];
+    Arrays.fill(values, 1);
+    MultisetBranchAndPruneSolver solver = new MultisetBranchAndPruneSolver(5, values);
+    Subset solutions = solver.solve();
+
+    assertEquals(1, solutions.getCardinality()); // {1^5} au lieu de C(20, 5) copies
+    assertEquals("5 = \n (1^5)", solutions.toString());
+    assertEquals(1 + 21, solver.getStats().getNodesExpanded()); // la racine et ses 21 choix de copies
+  }
+
+  @Test
+  public void testNegativeValues() {
+    long[] values = { -1, -1, 2, 3 };
+    MultisetBranchAndPruneSolver solver = new MultisetBranchAndPruneSolver(1, values);
+    // {-1,2}, {-1,-1,3}
+    assertEquals(2, solver.solve().getCardinality());
+  }
+
+  @Test
+  public void testFirstModeAndUnreachable() {
+    long[] values = { 4, 4, 4, 6, 6 };
+    MultisetBranchAndPruneSolver solver = new MultisetBranchAndPruneSolver(12, values);
+    solver.setMode(SolveMode.FIRST);
+    assertEquals(1, solver.solve().getCardinality());
+
+    Subset none = new MultisetBranchAndPruneSolver(7, values).solve();
+    assertEquals(0, none.getSum());
+  }
+
+  @Test
+  public void testOverflow() {
+    long big = Long.MAX_VALUE / 2;
+    assertThrows(IllegalArgumentException.class, () -> new MultisetBranchAndPruneSolver(0, new long[] { big, big, big }));
+    assertThrows(IllegalArgumentException.class, () -> new MultisetBranchAndPruneSolver(0, new long[] { big, -big - 2 }));
+    // les multi-ensembles eux-mêmes calculent leur somme exactement
+    assertThrows(IllegalArgumentException.class, () -> new MultisetSubset(new long[] { big }, new int[] { 3 }));
+    assertEquals(0, new MultisetSubset(new long[] { big, -big }, new int[] { 2, 2 }).getSum());
+
+    // les cibles extrêmes sont inaccessibles, sans débordement des bornes
+    long quarter = Long.MAX_VALUE / 4;
+    long[] values = { quarter, quarter, -quarter };
+    assertEquals(0, new MultisetBranchAndPruneSolver(Long.MIN_VALUE, values).solve().getSum());
+    assertEquals(0, new MultisetBranchAndPruneSolver(Long.MAX_VALUE, values).solve().getSum());
+    // {q}, {q,q,-q}
+    assertEquals(2, new MultisetBranchAndPruneSolver(quarter, values).solve().getCardinality());
+  }
+}
@@ -0,0 +1,140 @@
+package fr.ssp.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+import fr.ssp.io.Instance;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests pour le Branch and Prune parallèle
+ */
+public class ParallelBranchAndPruneSolverTest {
+
+  @Test
+  public void testSmallInstance() {
+    long[] values = { 1, 2, 3, 4, 5 };
+
+    Subset solution = new ParallelBranchAndPruneSolver(5, values, SubsetFactory.V1).solve();
+
+    assertEquals(5, solution.getSum());
+    assertEquals(3, solution.getCardinality()); // {5}, {1,4}, {2,3}
+  }
+
+  @Test
+  public void testSameSolutionsAsSequential() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    Random R = new Random(11);
+    try {
+      for (int round = 0; round < 5; round++) {
+        Instance instance = RandomInstances.spread(R, 16, 10);
+        long target = instance.getTarget();
+        long[] values = instance.getValues();
+
+        for (SubsetFactory factory : new SubsetFactory[] { SubsetFactory.V1, SubsetFactory.V2 }) {
+          BranchAndPruneSolver sequential = new BranchAndPruneSolver(target, values, factory);
+          ParallelBranchAndPruneSolver parallel = new ParallelBranchAndPruneSolver(target, values, factory, pool, 6);
+          Subset expected = sequential.solve();
+          Subset actual = parallel.solve();
+
+          assertEquals(RandomInstances.solutions(expected), RandomInstances.solutions(actual));
+          assertEquals(expected.getCardinality(), actual.getCardinality());
+          assertEquals(sequential.getStats().getNodesExpanded(), parallel.getStats().getNodesExpanded());
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testCallerInterrupt() throws InterruptedException {
+    // 1..40 : plusieurs millions de solutions, la recherche ne finit pas seule
+    long[] values = new long[40];
+    for (int i = 0; i < values.length; i++)
+      values[i] = i + 1;
+    ParallelBranchAndPruneSolver solver = new ParallelBranchAndPruneSolver(410, values, SubsetFactory.V4);
+
+    SolveResult[] result = new SolveResult[1];
+    boolean[] interrupted = new boolean[1];
+    Thread caller = new Thread(() -> {
+      result[0] = solver.solve(Deadline.NONE);
+      interrupted[0] = Thread.currentThread().isInterrupted();
+    });
+    caller.start();
+    Thread.sleep(200);
+    caller.interrupt();
+    caller.join(10_000);
+
+    assertFalse(caller.isAlive());
+    assertEquals(SolveResult.Status.CANCELLED, result[0].getStatus());
+    assertTrue(interrupted[0]); // statut d'interruption rétabli
+  }
+
+  @Test
+  public void testFirstMode() {
+    long[] values = { 1, 2, 3, 4, 5 };
+    long target = 5;
+
+    ParallelBranchAndPruneSolver solver = new ParallelBranchAndPruneSolver(target, values, SubsetFactory.V1);
+    solver.setMode(SolveMode.FIRST);
+    Subset solution = solver.solve();
+
+    assertEquals(target, solution.getSum());
+    assertEquals(1, solution.getCardinality());
+    assertEquals(1, solver.getStats().getSolutionsFound());
+  }
+
+  @Test
+  public void testLimit() {
+    long[] values = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+    long target = 15; // 20 solutions
+
+    for (SubsetFactory factory : SubsetFactory.values()) {
+      ParallelBranchAndPruneSolver solver = new ParallelBranchAndPruneSolver(target, values, factory);
+      solver.setLimit(3);
+      Subset solutions = solver.solve();
+
+      assertEquals(target, solutions.getSum());
+      assertEquals(3, solutions.getCardinality());
+    }
+    assertThrows(IllegalArgumentException.class, () -> new ParallelBranchAndPruneSolver(target, values, SubsetFactory.V1).setLimit(0));
+  }
+
+  @Test
+  public void testSearchListener() {
+    long[] values = new long[16];
+    for (int i = 0; i < values.length; i++)
+      values[i] = i + 1;
+    AtomicInteger entered = new AtomicInteger();
+    AtomicInteger found = new AtomicInteger();
+    SearchListener listener = new SearchListener() {
+      @Override
+      public void nodeEntered(int index, long partialSum, long remaining) {
+        entered.incrementAndGet();
+      }
+
+      @Override
+      public void solutionFound(int index, Subset solution) {
+        assertEquals(20, solution.getSum());
+        found.incrementAndGet();
+      }
+    };
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      ParallelBranchAndPruneSolver solver = new ParallelBranchAndPruneSolver(20, values, SubsetFactory.V2, pool, 6);
+      solver.setSearchListener(listener);
+      Subset solutions = solver.solve();
+
+      assertEquals(solver.getStats().getNodesExpanded(), entered.get());
+      assertEquals(solutions.getCardinality(), found.get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package fr.ssp.solver;
+
+import fr.ssp.api.Subset;
+import fr.ssp.io.Instance;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Instances aléatoires et comparaison de solutions, partagées par les tests
+ * des solveurs
+ */
+final class RandomInstances {
+
+  private RandomInstances() {
+  }
+
+  /**
+   * n valeurs distinctes et croissantes, la i-ème tirée dans
+   * [1 + step * i, step * (i + 1)], et une cible égale à la somme d'une partie
+   * aléatoire des valeurs (donc atteignable)
+   */
+  static Instance spread(Random R, int n, int step) {
+    long[] values = new long[n];
+    long target = 0;
+    for (int i = 0; i < n; i++) {
+      values[i] = 1 + (long) step * i + R.nextInt(step);
+      if (R.nextBoolean())
+        target += values[i];
+    }
+    return new Instance(target, values);
+  }
+
+  /**
+   * solutions triées, pour comparer des Subset quelle que soit leur
+   * implémentation (vide si subset est null)
+   */
+  static Set<List<Long>> solutions(Subset subset) {
+    Set<List<Long>> set = new HashSet<>();
+    if (subset != null)
+      subset.forEachSolution((values, length) -> set.add(
+          Arrays.stream(values, 0, length).sorted().boxed().collect(Collectors.toList())));
+    return set;
+  }
+}
@@ -0,0 +1,100 @@
+package fr.ssp.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+import fr.ssp.io.Instance;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests pour le solveur de Schroeppel-Shamir
+ */
+public class SchroeppelShamirSolverTest {
+
+  @Test
+  public void testSmallInstance() {
+    long[] values = { 1, 2, 3, 4, 5 };
+
+    Subset solution = new SchroeppelShamirSolver(5, values, SubsetFactory.V1).solve();
+
+    assertEquals(5, solution.getSum());
+    assertEquals(3, solution.getCardinality()); // {5}, {1,4}, {2,3}
+  }
+
+  @Test
+  public void testSameSolutionsAsBranchAndPrune() {
+    Random R = new Random(13);
+    for (int round = 0; round < 10; round++) {
+      // n = 17 : des quarts de tailles inégales
+      Instance instance = RandomInstances.spread(R, 17, 10);
+      long target = instance.getTarget();
+      long[] values = instance.getValues();
+
+      Subset expected = new MeetInTheMiddleSolver(target, values, SubsetFactory.V1).solve();
+      Subset actual = new SchroeppelShamirSolver(target, values, SubsetFactory.V1).solve();
+
+      assertEquals(RandomInstances.solutions(expected), RandomInstances.solutions(actual));
+    }
+  }
+
+  @Test
+  public void testLongRunsOfEqualSums() {
+    // 1..20 : les flux A+B et C+D produisent de longues suites de sommes
+    // égales, dont tous les couples doivent être combinés
+    long[] values = new long[20];
+    for (int i = 0; i < values.length; i++)
+      values[i] = i + 1;
+
+    for (long target : new long[] { 0, 1, 105, 210 }) {
+      Subset solutions = new SchroeppelShamirSolver(target, values, SubsetFactory.V4).solve();
+      assertEquals(new SolutionCounter(target, values).count().intValue(), RandomInstances.solutions(solutions).size());
+      assertEquals(RandomInstances.solutions(new MeetInTheMiddleSolver(target, values, SubsetFactory.V4).solve()),
+          RandomInstances.solutions(solutions));
+    }
+  }
+
+  @Test
+  public void testDeadlineInsideRun() {
+    // 1..40 : des suites de dizaines de milliers de sommes égales, dont les
+    // produits ne peuvent pas être énumérés ; l'échéance doit les interrompre
+    long[] values = new long[40];
+    for (int i = 0; i < values.length; i++)
+      values[i] = i + 1;
+    SchroeppelShamirSolver solver = new SchroeppelShamirSolver(410, values, SubsetFactory.V4);
+
+    SolveResult result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+        () -> solver.solve(Deadline.after(200, TimeUnit.MILLISECONDS)));
+    assertEquals(SolveResult.Status.TIMED_OUT, result.getStatus());
+    assertTrue(result.getStats().getSolutionsFound() > 0);
+  }
+
+  @Test
+  public void testWitnessWithHugeValues() {
+    Random R = new Random(1);
+    long[] values = new long[40];
+    long target = 0;
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 1 + (R.nextLong() >>> 24);
+      if (R.nextBoolean())
+        target += values[i];
+    }
+
+    SchroeppelShamirSolver solver = new SchroeppelShamirSolver(target, values, SubsetFactory.V1);
+    solver.setMode(SolveMode.FIRST);
+    Subset solution = solver.solve();
+
+    assertEquals(target, solution.getSum());
+    assertEquals(1, solution.getCardinality());
+  }
+
+  @Test
+  public void testUnreachable() {
+    long[] values = { 4, 8, 16, 32 };
+    assertNull(new SchroeppelShamirSolver(7, values, SubsetFactory.V1).solve());
+  }
+}
@@ -0,0 +1,82 @@
+package fr.ssp.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+import fr.ssp.io.Instance;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Tests pour le comptage des solutions
+ */
+public class SolutionCounterTest {
+
+  @Test
+  public void testSmallInstance() {
+    long[] values = { 1, 2, 3, 4, 5 };
+    assertEquals(BigInteger.valueOf(3), new SolutionCounter(5, values).count()); // {5}, {1,4}, {2,3}
+    assertEquals(BigInteger.ZERO, new SolutionCounter(16, values).count());
+    assertEquals(BigInteger.valueOf(3), new BranchAndPruneSolver(5, values, SubsetFactory.V1).count());
+  }
+
+  @Test
+  public void testAgreesWithBranchAndPrune() {
+    Random R = new Random(4);
+    for (int round = 0; round < 10; round++) {
+      Instance instance = RandomInstances.spread(R, 14, 5);
+      long target = instance.getTarget();
+      long[] values = instance.getValues();
+      Subset solutions = new BranchAndPruneSolver(target, values, SubsetFactory.V1).solve();
+      assertEquals(BigInteger.valueOf(solutions.getCardinality()), new SolutionCounter(target, values).count());
+    }
+  }
+
+  @Test
+  public void testNegativeValues() {
+    long[] values = { -1, 1, 2, 3 };
+    // {2}, {-1,3}, {-1,1,2}
+    assertEquals(BigInteger.valueOf(3), new SolutionCounter(2, values).count());
+  }
+
+  @Test
+  public void testOverflow() {
+    long[] zeros = new long[70];
+    assertEquals(BigInteger.TWO.pow(70), new SolutionCounter(0, zeros).count());
+
+    long[] values = new long[100];
+    for (int i = 0; i < values.length; i++)
+      values[i] = i + 1;
+    BigInteger dense = new SolutionCounter(2525, values).count();
+    assertTrue(dense.bitLength() > 63);
+
+    // même instance par la table creuse (une valeur négative nulle d'effet)
+    long[] shifted = new long[101];
+    System.arraycopy(values, 0, shifted, 0, 100);
+    shifted[100] = -100_000;
+    assertEquals(dense, new SolutionCounter(2525, shifted).count());
+  }
+
+  @Test
+  public void testPromoteMidLayer() {
+    // 2^62 solutions avant le dernier zéro : le doublement déborde en cours de couche
+    long[] values = new long[64];
+    values[0] = 1;
+    assertEquals(BigInteger.TWO.pow(63), new SolutionCounter(1, values).count());
+    values[0] = -1;
+    assertEquals(BigInteger.TWO.pow(63), new SolutionCounter(-1, values).count());
+  }
+
+  @Test
+  public void testCountIgnoresLimit() {
+    long[] values = { 1, 2, 3, 4, 5 };
+    BranchAndPruneSolver solver = new BranchAndPruneSolver(5, values, SubsetFactory.V1);
+    solver.setLimit(1);
+    solver.setMode(SolveMode.FIRST);
+    assertEquals(BigInteger.valueOf(3), solver.count());
+    assertEquals(1, solver.solve().getCardinality());
+  }
+}
@@ -0,0 +1,50 @@
+package fr.ssp.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import fr.ssp.api.Subset;
+import fr.ssp.impl.SubsetFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests pour la table somme -> sous-ensemble de la programmation dynamique
+ */
+public class SubsetTableTest {
+
+  @Test
+  public void testAddAndLookup() {
+    SubsetTable table = new SubsetTable(2);
+    Map<Long, Subset> expected = new HashMap<>();
+    Random R = new Random(24);
+    for (int k = 0; k < 10000; k++) {
+      long key = k % 3 == 0 ? -R.nextInt(1000) : (long) R.nextInt(1 << 20) << 20;
+      if (table.indexOf(key) >= 0)
+        continue;
+      Subset value = SubsetFactory.V1.createSubset(k + 1);
+      assertEquals(expected.size(), table.add(key, value));
+      expected.put(key, value);
+    }
+    assertEquals(expected.size(), table.size());
+    for (Map.Entry<Long, Subset> entry : expected.entrySet())
+      assertSame(entry.getValue(), table.get(entry.getKey()));
+    assertNull(table.get(1));
+
+    // parcours par indice dans l'ordre d'insertion
+    for (int i = 0; i < table.size(); i++)
+      assertSame(expected.get(table.keyAt(i)), table.valueAt(i));
+  }
+
+  @Test
+  public void testReplaceValue() {
+    SubsetTable table = new SubsetTable(4);
+    int i = table.add(7, SubsetFactory.V1.createSubset(7));
+    Subset other = SubsetFactory.V1.createSubset(7);
+    table.setValueAt(i, other);
+    assertSame(other, table.get(7));
+    assertEquals(1, table.size());
+  }
+}